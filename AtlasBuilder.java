@@ -0,0 +1,104 @@
+import java.awt.*;
+import java.awt.image.*;
+import java.io.*;
+import javax.imageio.*;
+
+/**
+ * AtlasBuilder packs the image of every card face, and of the card back, into a
+ * single PNG sprite atlas, which CardImageCache loads from the classpath in place
+ * of the separate GIFs. The atlas is a grid of cells the size of one card image:
+ * row s holds the suit s (see PackedCard) from the Ace in column 0 to the King in
+ * column 12, and the card back is alone in row 4.
+ *
+ * Run it again whenever an image in the cards directory changes.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class AtlasBuilder
+{
+    /**
+     * The number of columns of the atlas.
+     */
+    public static final int COLUMNS = 13;
+
+    /**
+     * The number of rows of the atlas.
+     */
+    public static final int ROWS = 5;
+
+    /**
+     * The path of the atlas, both on the classpath and relative to the project.
+     */
+    public static final String ATLAS_NAME = "cards/atlas.png";
+
+    /**
+     * Builds the atlas.
+     *
+     * @param   args    optionally, the path the atlas is written to (by default,
+     *                  ATLAS_NAME); the card images are read from the paths given
+     *                  by Card.getFileName and Card.BACK_FILE_NAME
+     * @throws  IOException if an image cannot be read or the atlas cannot be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        File output = new File(args.length > 0 ? args[0] : ATLAS_NAME);
+        BufferedImage back = read(Card.BACK_FILE_NAME);
+        int width = back.getWidth();
+        int height = back.getHeight();
+
+        BufferedImage atlas = new BufferedImage(width * COLUMNS, height * ROWS,
+                                                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        for (int i = 0; i < 52; i++)
+        {
+            Card card = Card.of(PackedCard.encode(i % 13 + 1, i / 13, true));
+            g.drawImage(read(card.getFileName()), column(i) * width, row(i) * height,
+                        width, height, null);
+        }
+        g.drawImage(back, column(52) * width, row(52) * height, null);
+        g.dispose();
+
+        if (!ImageIO.write(atlas, "png", output))
+            throw new IOException("no PNG writer");
+        System.out.println("wrote " + output + " (" + atlas.getWidth() + "x" + atlas.getHeight()
+                           + ", " + output.length() + " bytes)");
+    }
+
+    /**
+     * Returns the column of the atlas holding an image.
+     *
+     * @param   index   the PackedCard.index of a card, or 52 for the card back
+     * @return          the column of its cell
+     */
+    public static int column(int index)
+    {
+        return index % COLUMNS;
+    }
+
+    /**
+     * Returns the row of the atlas holding an image.
+     *
+     * @param   index   the PackedCard.index of a card, or 52 for the card back
+     * @return          the row of its cell
+     */
+    public static int row(int index)
+    {
+        return index / COLUMNS;
+    }
+
+    /**
+     * Reads an image file.
+     *
+     * @param   fileName    the path of the image file
+     * @return              the image
+     * @throws  IOException if the file cannot be read
+     */
+    private static BufferedImage read(String fileName) throws IOException
+    {
+        BufferedImage image = ImageIO.read(new File(fileName));
+        if (image == null)
+            throw new IOException("not an image:  " + fileName);
+        return image;
+    }
+}
@@ -0,0 +1,140 @@
+import java.awt.*;
+import java.awt.image.*;
+
+/**
+ * A BackBuffer is an offscreen image which a component keeps drawn between paints
+ * and copies onto the screen, held where possible in a VolatileImage so that both
+ * drawing into it and copying it out are done by the accelerated Java2D pipeline
+ * (OpenGL, XRender, or Direct3D, as the platform offers) rather than in main memory.
+ *
+ * The contents of a VolatileImage may be lost at any time (when the display mode
+ * changes, say), so a component validates the buffer before each paint, redraws
+ * it entirely if validate says so, and repeats the copy if the contents were lost
+ * while it was being copied. When the component is not displayable, as when it is
+ * painted off the screen by a benchmark, the buffer is an ordinary BufferedImage,
+ * which is never lost.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class BackBuffer
+{
+    private Component owner;
+    private VolatileImage volatileImage;   //null if the buffer is a BufferedImage
+    private Image image;                   //the buffer, or null until first validated
+
+    /**
+     * Constructor for objects of BackBuffer class.
+     *
+     * @param   owner   the component the buffer is drawn for, whose graphics
+     *                  configuration the buffer is made compatible with
+     */
+    public BackBuffer(Component owner)
+    {
+        this.owner = owner;
+    }
+
+    /**
+     * Makes sure the buffer is of a given size and ready to be drawn into and
+     * copied out of, creating or restoring it if need be.
+     *
+     * @param   width   the width the buffer must be, in pixels; at least 1
+     * @param   height  the height the buffer must be, in pixels; at least 1
+     * @return          true if the buffer was created or restored, and so must be
+     *                  redrawn entirely; otherwise,
+     *                  false
+     */
+    public boolean validate(int width, int height)
+    {
+        if (image == null || image.getWidth(null) != width || image.getHeight(null) != height)
+        {
+            create(width, height);
+            return true;
+        }
+        if (volatileImage == null)
+        {
+            return false;
+        }
+
+        GraphicsConfiguration configuration = owner.getGraphicsConfiguration();
+        if (configuration == null)
+        {
+            return false;
+        }
+        int status = volatileImage.validate(configuration);
+        if (status == VolatileImage.IMAGE_INCOMPATIBLE)
+        {
+            create(width, height);
+            return true;
+        }
+        return status == VolatileImage.IMAGE_RESTORED;
+    }
+
+    /**
+     * Determines whether the contents of the buffer were lost since it was last
+     * validated, in which case whatever was copied out of it since is wrong.
+     *
+     * @return  true if the contents were lost; otherwise,
+     *          false
+     */
+    public boolean contentsLost()
+    {
+        return volatileImage != null && volatileImage.contentsLost();
+    }
+
+    /**
+     * Determines whether the buffer has been created, by the first validate.
+     *
+     * @return  true if there is a buffer to be drawn into; otherwise,
+     *          false
+     */
+    public boolean exists()
+    {
+        return image != null;
+    }
+
+    /**
+     * Returns a graphics context which draws into the buffer; it should be disposed
+     * of once drawing is done.
+     *
+     * @return  the graphics of the buffer
+     */
+    public Graphics2D createGraphics()
+    {
+        return (Graphics2D) image.getGraphics();
+    }
+
+    /**
+     * Returns the buffer, to be copied onto the screen.
+     *
+     * @return  the offscreen image
+     */
+    public Image getImage()
+    {
+        return image;
+    }
+
+    /**
+     * Replaces the buffer with a new, blank one, accelerated if the component is
+     * displayable.
+     *
+     * @param   width   the width of the buffer, in pixels
+     * @param   height  the height of the buffer, in pixels
+     */
+    private void create(int width, int height)
+    {
+        if (image != null)
+        {
+            image.flush();
+        }
+        volatileImage = owner.isDisplayable() ? owner.createVolatileImage(width, height) : null;
+        if (volatileImage != null)
+        {
+            image = volatileImage;
+        }
+        else
+        {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+    }
+}
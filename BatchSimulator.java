@@ -0,0 +1,201 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+/**
+ * A BatchSimulator plays many seeded deals with a PlayPolicy, spread across a
+ * pool of worker threads, to estimate how often the policy wins. Workers claim
+ * blocks of consecutive seeds from a shared counter, play them with their own
+ * policy and their own SimulationStats, and the stats are merged at the end.
+ *
+ * A game ends when it is won, when the policy gives up, when the waste is
+ * recycled without any other move having been made since the last recycle, or
+ * after MAX_MOVES moves.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class BatchSimulator
+{
+    public static final int MAX_MOVES = 1000;
+    private static final int BLOCK = 1024;   //seeds claimed by a worker at a time
+
+    /**
+     * Simulates a batch of deals and prints the stats.
+     *
+     * @param   args    the policy ("greedy", "random", or "solver"), the number of
+     *                  games, and optionally the first seed
+     */
+    public static void main(String[] args)
+    {
+        String name = args.length > 0 ? args[0] : "greedy";
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        long firstSeed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        BatchSimulator simulator = new BatchSimulator(Runtime.getRuntime().availableProcessors());
+        System.out.println(name + ": " + simulator.run(firstSeed, games, policy(name)));
+    }
+
+    /**
+     * Returns a supplier of the policy with the given name.
+     *
+     * @param   name    "greedy", "random", or "solver"
+     * @return          a supplier of new policies
+     */
+    public static Supplier<PlayPolicy> policy(String name)
+    {
+        if (name.equals("greedy"))
+        {
+            return GreedyPolicy::new;
+        }
+        if (name.equals("random"))
+        {
+            return RandomPolicy::new;
+        }
+        if (name.equals("solver"))
+        {
+            return () -> new SolverPolicy(new Solver(20, 200000, 1000));
+        }
+        throw new IllegalArgumentException("bad policy name:  " + name);
+    }
+
+    private int threads;
+
+    /**
+     * Constructor for objects of BatchSimulator class.
+     *
+     * @param   threads     the number of worker threads
+     */
+    public BatchSimulator(int threads)
+    {
+        this.threads = threads;
+    }
+
+    /**
+     * Plays the deals for count consecutive seeds.
+     *
+     * @param   firstSeed   the seed of the first deal
+     * @param   count       the number of deals to be played
+     * @param   policies    creates the policy for each worker thread
+     * @return              the combined stats of all of the games
+     */
+    public SimulationStats run(long firstSeed, int count, Supplier<PlayPolicy> policies)
+    {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicLong nextSeed = new AtomicLong(firstSeed);
+        long endSeed = firstSeed + count;
+        long start = System.nanoTime();
+
+        List<Future<SimulationStats>> results = new ArrayList<Future<SimulationStats>>();
+        for (int i = 0; i < threads; i++)
+        {
+            results.add(pool.submit(() -> work(nextSeed, endSeed, policies.get())));
+        }
+
+        SimulationStats total = new SimulationStats();
+        try
+        {
+            for (Future<SimulationStats> result : results)
+            {
+                total.merge(result.get());
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("simulation interrupted", e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("simulation failed", e.getCause());
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        total.setElapsedNanos(System.nanoTime() - start);
+        return total;
+    }
+
+    /**
+     * Plays blocks of deals until every seed has been claimed.
+     *
+     * @param   nextSeed    the first seed not yet claimed by any worker
+     * @param   endSeed     one more than the last seed to be played
+     * @param   policy      the policy of this worker
+     * @return              the stats of the games this worker played
+     */
+    private static SimulationStats work(AtomicLong nextSeed, long endSeed, PlayPolicy policy)
+    {
+        SimulationStats stats = new SimulationStats();
+        Solitaire game = null;   //dealt again for each seed, rather than built anew
+        long seed = nextSeed.getAndAdd(BLOCK);
+        while (seed < endSeed)
+        {
+            long end = Math.min(seed + BLOCK, endSeed);
+            for (; seed < end; seed++)
+            {
+                if (game == null)
+                {
+                    game = new Solitaire(seed);
+                }
+                else
+                {
+                    game.newDeal(seed);
+                }
+                play(game, policy, stats);
+            }
+            seed = nextSeed.getAndAdd(BLOCK);
+        }
+        return stats;
+    }
+
+    /**
+     * Plays one game to its end and records the result.
+     *
+     * @param   game    the game to be played
+     * @param   policy  the policy choosing the moves
+     * @param   stats   the stats the result is recorded in
+     */
+    public static void play(Solitaire game, PlayPolicy policy, SimulationStats stats)
+    {
+        policy.newGame(game);
+        int moves = 0;
+        int cycles = 0;
+        boolean progress = true;   //whether a move other than a draw was made since the last recycle
+
+        while (!game.hasWon() && moves < MAX_MOVES)
+        {
+            int move = policy.nextMove(game);
+            if (move == -1 || !game.makeMove(move))
+            {
+                break;
+            }
+            moves++;
+
+            if (Move.to(move) == Tableau.STOCK)
+            {
+                if (!progress)
+                {
+                    break;
+                }
+                cycles++;
+                progress = false;
+            }
+            else if (Move.from(move) != Tableau.STOCK)
+            {
+                progress = true;
+            }
+        }
+
+        Tableau t = game.getTableau();
+        int cards = 0;
+        for (int f = Tableau.FOUNDATION; f < Tableau.PILE; f++)
+        {
+            cards += t.size(f);
+        }
+        stats.record(game.hasWon(), moves, cycles, cards);
+    }
+}
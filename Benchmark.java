@@ -0,0 +1,345 @@
+import java.awt.*;
+import java.awt.image.*;
+import java.io.*;
+import java.lang.management.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.List;
+import java.util.function.*;
+
+/**
+ * Benchmark times the hot paths of the game engine and of painting, so that a slow
+ * change can be caught by comparing against a saved baseline. Each benchmark is an
+ * operation run over and over on one thread: first for a number of warmup rounds,
+ * so that the JIT has compiled it, then for a number of measured rounds. For each
+ * benchmark Benchmark reports the throughput (with the spread between rounds) and
+ * the allocation rate, which it reads from the thread's allocated byte counter.
+ *
+ * Benchmark is only a quick stand-in, which runs from the BlueJ project with
+ * nothing else on the classpath; it forks no JVMs and runs every benchmark in one.
+ * Numbers to be trusted come from the same benchmarks run under JMH, by
+ * GameBenchmarks in the benchmarks module of the Maven build (see pom.xml), with
+ * "-prof gc" for the allocation rate.
+ *
+ * Every operation returns an int which is folded into a sink, so the JIT cannot
+ * discard the work as dead code.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class Benchmark
+{
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 5;
+    private static final long ROUND_NANOS = 500000000L;
+    private static final double REGRESSION = 0.10;   //slowdown against a baseline which is reported
+
+    /**
+     * Runs the benchmarks and prints the results.
+     *
+     * @param   args    optionally, the names of the benchmarks to be run (by default,
+     *                  all of them), "-save file" to save the results as a baseline,
+     *                  and "-compare file" to report regressions against a baseline
+     * @throws  IOException if a baseline cannot be read or written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        Path save = null;
+        Path compare = null;
+        Set<String> names = new HashSet<String>();
+        for (int i = 0; i < args.length; i++)
+        {
+            if (args[i].equals("-save"))
+            {
+                i++;
+                save = Paths.get(args[i]);
+            }
+            else if (args[i].equals("-compare"))
+            {
+                i++;
+                compare = Paths.get(args[i]);
+            }
+            else
+            {
+                names.add(args[i]);
+            }
+        }
+
+        Benchmark benchmark = new Benchmark();
+        Map<String, IntSupplier> benchmarks = benchmark.benchmarks();
+        Map<String, double[]> results = new LinkedHashMap<String, double[]>();
+        System.out.printf("%-12s %14s %8s %12s %10s %10s%n",
+                          "benchmark", "ops/s", "+-%", "ns/op", "B/op", "MB/s");
+        for (Map.Entry<String, IntSupplier> entry : benchmarks.entrySet())
+        {
+            if (names.isEmpty() || names.contains(entry.getKey()))
+            {
+                double[] result = benchmark.measure(entry.getValue());
+                results.put(entry.getKey(), result);
+                System.out.printf("%-12s %14.0f %8.1f %12.1f %10.1f %10.1f%n", entry.getKey(),
+                                  result[0], result[1], 1e9 / result[0], result[2],
+                                  result[0] * result[2] / 1e6);
+            }
+        }
+
+        if (compare != null)
+        {
+            compare(results, compare);
+        }
+        if (save != null)
+        {
+            List<String> lines = new ArrayList<String>();
+            for (Map.Entry<String, double[]> entry : results.entrySet())
+            {
+                lines.add(entry.getKey() + " " + entry.getValue()[0] + " " + entry.getValue()[2]);
+            }
+            Files.write(save, lines);
+        }
+        System.out.println("(sink " + benchmark.sink + ")");
+    }
+
+    /**
+     * Prints the benchmarks whose throughput has fallen by more than REGRESSION, or
+     * whose allocation has grown, since a saved baseline.
+     *
+     * @param   results     the results of this run, by benchmark name
+     * @param   baseline    the file saved by an earlier run with -save
+     * @throws  IOException if the baseline cannot be read
+     */
+    private static void compare(Map<String, double[]> results, Path baseline) throws IOException
+    {
+        int regressions = 0;
+        for (String line : Files.readAllLines(baseline))
+        {
+            String[] fields = line.split(" ");
+            double[] result = results.get(fields[0]);
+            if (result == null)
+            {
+                continue;
+            }
+
+            double oldThroughput = Double.parseDouble(fields[1]);
+            double oldAllocation = Double.parseDouble(fields[2]);
+            if (result[0] < oldThroughput * (1 - REGRESSION))
+            {
+                System.out.printf("REGRESSION %s: %.0f ops/s, was %.0f%n",
+                                  fields[0], result[0], oldThroughput);
+                regressions++;
+            }
+            if (result[2] > oldAllocation + 1)
+            {
+                System.out.printf("REGRESSION %s: %.1f B/op, was %.1f%n",
+                                  fields[0], result[2], oldAllocation);
+                regressions++;
+            }
+        }
+        System.out.println(regressions + " regressions against " + baseline);
+    }
+
+    private com.sun.management.ThreadMXBean threads;
+    private int sink;
+
+    private Solitaire[] positions;   //games part of the way through, for the move benchmarks
+    private int[][] positionMoves;   //the legal moves of each position
+    private byte[] cards;            //every card, face up
+    private Card[] cardViews;        //every card
+    private long seed;
+    private int next;
+    private int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * Constructor for objects of Benchmark class, which sets up the positions
+     * the benchmarks work on.
+     */
+    public Benchmark()
+    {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        Random random = new Random(1);
+        positions = new Solitaire[256];
+        positionMoves = new int[positions.length][];
+        for (int i = 0; i < positions.length; i++)
+        {
+            Solitaire game = new Solitaire(i);
+            int steps = random.nextInt(60);
+            for (int j = 0; j < steps; j++)
+            {
+                int count = MoveGenerator.legalMoves(game.getTableau(), moves, 0);
+                if (count == 0)
+                {
+                    break;
+                }
+                game.makeMove(moves[random.nextInt(count)]);
+            }
+            positions[i] = game;
+            positionMoves[i] = Arrays.copyOf(moves, MoveGenerator.legalMoves(game.getTableau(), moves, 0));
+        }
+
+        cards = new byte[52];
+        cardViews = new Card[52];
+        for (int suit = 0; suit < 4; suit++)
+        {
+            for (int rank = 1; rank <= 13; rank++)
+            {
+                cards[suit * 13 + rank - 1] = PackedCard.encode(rank, suit, true);
+                cardViews[suit * 13 + rank - 1] = Card.of(rank, PackedCard.SUIT_NAMES[suit]);
+            }
+        }
+    }
+
+    /**
+     * Lists the benchmarks. The JMH benchmarks in the benchmarks module run these
+     * same operations.
+     *
+     * @return  the operation of each benchmark, by name
+     */
+    public Map<String, IntSupplier> benchmarks()
+    {
+        Map<String, IntSupplier> benchmarks = new LinkedHashMap<String, IntSupplier>();
+
+        //shuffle, create the stock, and deal (Solitaire's constructor)
+        benchmarks.put("deal", () -> new Solitaire(seed++).getPileSize(6));
+
+        //the rules behind canAddToPile and canAddToFoundation, for every pair of cards
+        benchmarks.put("rules", () ->
+        {
+            int legal = 0;
+            for (int i = 0; i < cards.length; i++)
+            {
+                for (int j = 0; j < cards.length; j++)
+                {
+                    if (PackedCard.canStack(cards[i], cards[j]) || PackedCard.canFollow(cards[i], cards[j]))
+                    {
+                        legal++;
+                    }
+                }
+            }
+            return legal;
+        });
+
+        //listing every legal move of a position, which checks each against the rules
+        benchmarks.put("legalMoves", () ->
+        {
+            next = (next + 1) & (positions.length - 1);
+            return MoveGenerator.legalMoves(positions[next].getTableau(), moves, 0);
+        });
+
+        //making a legal move and undoing it
+        benchmarks.put("makeMove", () ->
+        {
+            next = (next + 1) & (positions.length - 1);
+            int[] legal = positionMoves[next];
+            if (legal.length == 0)
+            {
+                return 0;
+            }
+            Solitaire game = positions[next];
+            game.makeMove(legal[(int) (seed++ % legal.length)]);
+            game.undo();
+            return game.getMoveCount();
+        });
+
+        benchmarks.put("fileName", () ->
+        {
+            next = (next + 1) % cardViews.length;
+            return cardViews[next].getFileName().length();
+        });
+
+        //a whole game of random moves, from the deal to its end
+        SimulationStats stats = new SimulationStats();
+        PlayPolicy policy = new RandomPolicy();
+        benchmarks.put("playout", () ->
+        {
+            Solitaire game = new Solitaire(seed++);
+            BatchSimulator.play(game, policy, stats);
+            return game.getMoveCount();
+        });
+
+        //redrawing a whole frame of a game off the screen, then painting it; each
+        //display's engine owns its game, so it is given a copy of the position
+        BufferedImage screen = new BufferedImage(600, 500, BufferedImage.TYPE_INT_RGB);
+        Graphics screenGraphics = screen.createGraphics();
+        SolitaireDisplay[] displays = new SolitaireDisplay[16];
+        for (int i = 0; i < displays.length; i++)
+        {
+            displays[i] = new SolitaireDisplay(new Solitaire(positions[i]), false);
+            displays[i].paintComponent(screenGraphics);
+        }
+        benchmarks.put("paint", () ->
+        {
+            next = (next + 1) & (displays.length - 1);
+            displays[next].redrawAll();
+            displays[next].paintComponent(screenGraphics);
+            return screen.getRGB(next, next);
+        });
+
+        return benchmarks;
+    }
+
+    /**
+     * Runs one benchmark for the warmup rounds and then the measured rounds.
+     *
+     * @param   operation   the operation to be timed
+     * @return              the mean throughput in operations per second, its spread
+     *                      between rounds as a percentage, and the bytes allocated
+     *                      per operation
+     */
+    private double[] measure(IntSupplier operation)
+    {
+        for (int i = 0; i < WARMUP_ROUNDS; i++)
+        {
+            round(operation);
+        }
+
+        double[] throughputs = new double[ROUNDS];
+        long operations = 0;
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ROUNDS; i++)
+        {
+            long start = System.nanoTime();
+            long count = round(operation);
+            throughputs[i] = count * 1e9 / (System.nanoTime() - start);
+            operations += count;
+        }
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+
+        double mean = 0;
+        for (int i = 0; i < ROUNDS; i++)
+        {
+            mean += throughputs[i] / ROUNDS;
+        }
+        double variance = 0;
+        for (int i = 0; i < ROUNDS; i++)
+        {
+            variance += (throughputs[i] - mean) * (throughputs[i] - mean) / ROUNDS;
+        }
+        return new double[] {mean, 100 * Math.sqrt(variance) / mean, (double) allocated / operations};
+    }
+
+    /**
+     * Runs an operation for one round. The clock is read only between batches of
+     * operations, and batches grow until a round takes about ROUND_NANOS.
+     *
+     * @param   operation   the operation to be run
+     * @return              the number of operations run
+     */
+    private long round(IntSupplier operation)
+    {
+        long end = System.nanoTime() + ROUND_NANOS;
+        long count = 0;
+        int batch = 1;
+        while (System.nanoTime() < end)
+        {
+            for (int i = 0; i < batch; i++)
+            {
+                sink += operation.getAsInt();
+            }
+            count += batch;
+            if (batch < 1 << 16)
+            {
+                batch *= 2;
+            }
+        }
+        return count;
+    }
+}
@@ -1,31 +1,80 @@
 
 /**
- * A card represents one of the cards in a standard deck. It has a rank, 
- * a suit, and is either turned up or turned down.
+ * A card represents one of the cards in a standard deck. It has a rank 
+ * and a suit.
+ * 
+ * A card is a view over a single PackedCard byte, which is what the rules of
+ * the game operate on; the view adds the names and file names used by the display.
+ * Cards are immutable, and there is only ever one Card for each of the 52 cards,
+ * shared by every game; whether a card is face up is a matter of where it lies in
+ * its pile, and is asked of the game rather than of the card.
  * 
  * @author      Annabelle Perng
  * @version     11.08.2018
  */
-public class Card
+public final class Card
 {
-    // instance variables - replace the example below with your own
-    private int rank;
-    private String suit;
-    private boolean isFaceUp;
+    /**
+     * The file path of the image of the back of a card.
+     */
+    public static final String BACK_FILE_NAME = "cards/back.gif";
+
+    private static final Card[] CARDS = new Card[52];   //indexed by PackedCard.index
+
+    static
+    {
+        for (int i = 0; i < 52; i++)
+        {
+            CARDS[i] = new Card(PackedCard.encode(i % 13 + 1, i / 13, false));
+        }
+    }
+
+    private final byte code;
+    private final String fileName;
 
     /**
      * Constructor for objects of Card class.
      * 
+     * @param   code        the card encoded as a PackedCard, face down
+     */
+    private Card(byte code)
+    {
+        this.code = code;
+        fileName = faceFileName(getRank(), getSuit());
+    }
+
+    /**
+     * Returns the card with a given rank and suit.
+     * 
      * @param   rank        the card's rank, where 1 ≤ rank ≤ 13
      * @param   suit        the card's suit; "c" for clubs, "d" for diamonds,
      *                      "h" for hearts, "s" for spades
-     * @param   isFaceUp    true if the card is initially turned face up
+     * @return              the shared Card
      */
-    public Card(int rank, String suit, boolean isFaceUp)
+    public static Card of(int rank, String suit)
     {
-        this.rank = rank;
-        this.suit = suit;
-        this.isFaceUp = isFaceUp;
+        return of(PackedCard.encode(rank, PackedCard.suitOf(suit), false));
+    }
+
+    /**
+     * Returns the card encoded by a PackedCard.
+     * 
+     * @param   code        the card encoded as a PackedCard; its face up bit is ignored
+     * @return              the shared Card
+     */
+    public static Card of(byte code)
+    {
+        return CARDS[PackedCard.index(code)];
+    }
+
+    /**
+     * Returns the card encoded as a PackedCard, with its face up bit clear.
+     * 
+     * @return  the packed card
+     */
+    public byte getCode()
+    {
+        return code;
     }
     
     /**
@@ -36,7 +85,7 @@ public class Card
      */
     public int getRank()
     {
-        return rank;
+        return PackedCard.rank(code);
     }
 
     /**
@@ -47,7 +96,7 @@ public class Card
      */
     public String getSuit()
     {
-        return suit;
+        return PackedCard.SUIT_NAMES[PackedCard.suit(code)];
     }
 
     /**
@@ -58,52 +107,30 @@ public class Card
      */
     public boolean isRed()
     {
-        return (suit.equals("h") || suit.equals("d"));
+        return PackedCard.isRed(code);
     }
 
     /**
-     * Determines whether the card is face up in the pile.
+     * Retrieves the file name of the image showing the card's suit and rank;
+     * the back of every card is BACK_FILE_NAME. The file names are built once,
+     * when the class is loaded.
      * 
-     * @return  true if the card is turned face up; otherwise,
-     *          false
-     */
-    public boolean isFaceUp()
-    {
-        return isFaceUp;
-    }
-
-    /**
-     * Turns a card face up if it is facing down.
+     * @return  a file path to the image of the card's face
      */
-    public void turnUp()
-    {
-        isFaceUp = true;
-    }
-    
-    /**
-     * Turns a card face down if it is facing up.
-     */
-    public void turnDown()
+    public String getFileName()
     {
-        isFaceUp = false;
+        return fileName;
     }
 
     /**
-     * Retrieves the file name of the card. If the card is facing up,
-     * the file name corresponds to a visual representation showing the card's
-     * suit and rank. Otherwise, the file path to the back side of the 
-     * card is returned.
+     * Builds the file name of the image showing the face of a card.
      * 
-     * @return  a file path to the image which represents the card in its current state
+     * @param   rank    the card's rank, where 1 ≤ rank ≤ 13
+     * @param   suit    the card's suit; "c", "d", "h", or "s"
+     * @return          a file path to the image of the card's face
      */
-    public String getFileName()
+    private static String faceFileName(int rank, String suit)
     {
-        //System.out.println(System.getProperty("user.dir") + "/cards/");
-        if (!(isFaceUp))
-        {
-            return "cards/back.gif";
-        }
-        
         String fileName = "";
         fileName += "cards/";
         
@@ -0,0 +1,153 @@
+import java.awt.*;
+import java.awt.image.*;
+import java.io.*;
+import java.net.*;
+import java.util.concurrent.*;
+import javax.imageio.*;
+
+/**
+ * A CardImageCache draws cards from a single sprite atlas holding every card face
+ * and the card back (see AtlasBuilder), already scaled to the size cards are drawn
+ * at, so that painting a card is one unscaled drawImage of a region of the atlas
+ * with no file access.
+ *
+ * The atlas is read from the classpath, not from a path relative to the working
+ * directory, so the game starts wherever it is launched from. It is decoded once
+ * per process, on a background thread started by preload; main starts it before
+ * anything else, so the decoding overlaps dealing the game and building the
+ * window, and the first paint only waits for whatever is left of it.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class CardImageCache
+{
+    private static final int BACK = 52;   //cell of the card back; faces use PackedCard.index
+
+    private static Future<BufferedImage> atlasLoad;
+
+    /**
+     * Starts decoding the atlas on a background thread, if it has not been started
+     * already.
+     */
+    public static synchronized void preload()
+    {
+        if (atlasLoad == null)
+        {
+            FutureTask<BufferedImage> task = new FutureTask<BufferedImage>(CardImageCache::readAtlas);
+            Thread thread = new Thread(task, "atlas preload");
+            thread.setDaemon(true);
+            thread.start();
+            atlasLoad = task;
+        }
+    }
+
+    /**
+     * Returns the decoded atlas, waiting for the preload to finish if need be.
+     *
+     * @return  the atlas, at the size of the card images it was built from
+     */
+    private static BufferedImage decodedAtlas()
+    {
+        preload();
+        try
+        {
+            return atlasLoad.get();
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("cannot load " + AtlasBuilder.ATLAS_NAME, e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted loading " + AtlasBuilder.ATLAS_NAME, e);
+        }
+    }
+
+    /**
+     * Reads the atlas from the classpath into an image in the integer ARGB format,
+     * which draws fastest.
+     *
+     * @return  the atlas
+     * @throws  IOException if the atlas is missing or cannot be read
+     */
+    private static BufferedImage readAtlas() throws IOException
+    {
+        URL resource = CardImageCache.class.getClassLoader().getResource(AtlasBuilder.ATLAS_NAME);
+        if (resource == null)
+            throw new FileNotFoundException(AtlasBuilder.ATLAS_NAME + " is not on the classpath");
+
+        BufferedImage source = ImageIO.read(resource);
+        if (source == null)
+            throw new IOException("not an image:  " + resource);
+        BufferedImage atlas = new BufferedImage(source.getWidth(), source.getHeight(),
+                                                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return atlas;
+    }
+
+    private int width;
+    private int height;
+    private BufferedImage atlas;   //scaled so that each cell is width by height; null until first used
+
+    /**
+     * Constructor for objects of CardImageCache class.
+     *
+     * @param   width   the width cards are drawn at, in pixels
+     * @param   height  the height cards are drawn at, in pixels
+     */
+    public CardImageCache(int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+        preload();
+    }
+
+    /**
+     * Draws a card turned one way or the other.
+     *
+     * @param   g       the graphics the card is to be drawn with
+     * @param   card    the card of interest
+     * @param   faceUp  true if the card is face up
+     * @param   x       the horizontal position of the card's top left corner
+     * @param   y       the vertical position of the card's top left corner
+     */
+    public void draw(Graphics g, Card card, boolean faceUp, int x, int y)
+    {
+        int cell = faceUp ? PackedCard.index(card.getCode()) : BACK;
+        int sx = AtlasBuilder.column(cell) * width;
+        int sy = AtlasBuilder.row(cell) * height;
+        g.drawImage(getAtlas(), x, y, x + width, y + height, sx, sy, sx + width, sy + height, null);
+    }
+
+    /**
+     * Returns the atlas scaled to the size cards are drawn at, scaling the decoded
+     * atlas the first time if its cells are of another size.
+     *
+     * @return  the scaled atlas
+     */
+    private BufferedImage getAtlas()
+    {
+        if (atlas == null)
+        {
+            BufferedImage source = decodedAtlas();
+            int scaledWidth = width * AtlasBuilder.COLUMNS;
+            int scaledHeight = height * AtlasBuilder.ROWS;
+            if (source.getWidth() == scaledWidth && source.getHeight() == scaledHeight)
+                atlas = source;
+            else
+            {
+                atlas = new BufferedImage(scaledWidth, scaledHeight, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g = atlas.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                                   RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(source, 0, 0, scaledWidth, scaledHeight, null);
+                g.dispose();
+            }
+        }
+        return atlas;
+    }
+}
@@ -0,0 +1,97 @@
+import java.util.concurrent.atomic.*;
+
+/**
+ * A ConcurrentTranspositionTable is a TranspositionTable which many threads may
+ * share without locks. Slots are claimed with compare-and-set, so two threads
+ * adding the same hash at once agree on which of them added it first (unless the
+ * bucket is full, in which case both may evict; at worst a position is searched
+ * twice).
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class ConcurrentTranspositionTable
+{
+    private static final int BUCKET_SIZE = 4;
+
+    private AtomicLongArray slots;
+    private int mask;
+    private LongAdder evictions;
+
+    /**
+     * Constructor for objects of ConcurrentTranspositionTable class.
+     *
+     * @param   bits    the base 2 logarithm of the number of slots; the table takes
+     *                  8 * 2^bits bytes; 2 <= bits <= 30
+     */
+    public ConcurrentTranspositionTable(int bits)
+    {
+        slots = new AtomicLongArray(1 << bits);
+        mask = (1 << bits) - 1;
+        evictions = new LongAdder();
+    }
+
+    /**
+     * Adds a hash to the table, unless it is already there.
+     *
+     * @param   hash    the hash of a position
+     * @return          true if the hash was added; otherwise (the position has
+     *                  already been visited),
+     *                  false
+     */
+    public boolean add(long hash)
+    {
+        if (hash == 0)
+        {
+            hash = 1;   //0 marks an empty slot
+        }
+
+        int bucket = (int) hash & mask & -BUCKET_SIZE;
+        for (int i = bucket; i < bucket + BUCKET_SIZE; i++)
+        {
+            long slot = slots.get(i);
+            if (slot == hash)
+            {
+                return false;
+            }
+            if (slot == 0)
+            {
+                if (slots.compareAndSet(i, 0, hash))
+                {
+                    return true;
+                }
+                if (slots.get(i) == hash)
+                {
+                    return false;
+                }
+            }
+        }
+
+        slots.set(bucket + (int) (hash >>> 62), hash);
+        evictions.increment();
+        return true;
+    }
+
+    /**
+     * Removes every hash from the table. Must not be called while other threads
+     * are adding to it.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < slots.length(); i++)
+        {
+            slots.set(i, 0);
+        }
+        evictions.reset();
+    }
+
+    /**
+     * Returns the number of hashes evicted since the table was last cleared.
+     *
+     * @return  the number of evictions
+     */
+    public long getEvictions()
+    {
+        return evictions.sum();
+    }
+}
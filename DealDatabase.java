@@ -0,0 +1,427 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * A DealDatabase is an on-disk store of pre-generated deals and what a Solver found
+ * about them, read through a memory-mapped file so that looking a deal up reads
+ * only the bytes it needs and copies nothing into objects.
+ *
+ * The file starts with a header: the MAGIC number, the number of records, and the
+ * start of each difficulty band in the band index. Then come the fixed-width
+ * records, sorted by seed so that a seed is found by binary search, each holding
+ * the seed, the positions the solver searched, the length of its solution, its
+ * result, a difficulty score, and the 52 cards of the deal. Last is the band index:
+ * the record numbers of the winnable deals, grouped by difficulty band.
+ *
+ * The difficulty of a deal is the number of bits in the count of positions the
+ * solver searched (so each step up roughly doubles the search), and the bands
+ * split the winnable deals at BAND_LIMITS.
+ *
+ * A mapping can span at most 2 GB, so the records and the band index are each
+ * mapped in chunks of 2^CHUNK_BITS entries, and a record or index entry is found
+ * by the high bits of its number (which chunk) and the low bits (where in it).
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class DealDatabase
+{
+    public static final int MAGIC = 0x534F4C44;   //"SOLD"
+    public static final int EASY = 0;
+    public static final int MEDIUM = 1;
+    public static final int HARD = 2;
+    public static final int EXPERT = 3;
+    public static final int NUM_BANDS = 4;
+
+    private static final int[] BAND_LIMITS = {9, 12, 15};   //the least difficulty of each band above EASY
+
+    private static final int HEADER_SIZE = 8 + 4 * (NUM_BANDS + 1);
+    private static final int SEED = 0;
+    private static final int NODES = 8;
+    private static final int LENGTH = 16;
+    private static final int RESULT = 18;
+    private static final int DIFFICULTY = 19;
+    private static final int DEAL = 20;
+    private static final int RECORD_SIZE = DEAL + DealGenerator.DEAL_SIZE;
+
+    private static final int CHUNK_BITS = 20;   //the base 2 logarithm of the entries mapped together
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+    /**
+     * Builds a database of consecutive seeds and prints how many deals landed in
+     * each band.
+     *
+     * @param   args    the file to be written, the first seed, and the number of deals
+     * @throws  IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        Path path = Paths.get(args[0]);
+        long firstSeed = Long.parseLong(args[1]);
+        int count = Integer.parseInt(args[2]);
+
+        build(path, firstSeed, count, new Solver(20, 200000, 1000));
+        DealDatabase deals = new DealDatabase(path);
+        for (int band = 0; band < NUM_BANDS; band++)
+        {
+            System.out.println("band " + band + ": " + deals.getBandSize(band) + " winnable deals");
+        }
+    }
+
+    /**
+     * Solves the deals for count consecutive seeds and writes them to a new database,
+     * replacing any file already at the path.
+     *
+     * @param   path        the file to be written
+     * @param   firstSeed   the seed of the first deal
+     * @param   count       the number of deals
+     * @param   solver      the solver to be used
+     * @throws  IOException if the file cannot be written
+     */
+    public static void build(Path path, long firstSeed, int count, Solver solver) throws IOException
+    {
+        int[] bandSizes = new int[NUM_BANDS];
+        int[] bands = new int[count];
+        long size = HEADER_SIZE + (long) RECORD_SIZE * count;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            MappedByteBuffer[] records = map(channel, FileChannel.MapMode.READ_WRITE, HEADER_SIZE,
+                                             count, RECORD_SIZE);
+            byte[] deck = new byte[DealGenerator.DEAL_SIZE];
+            for (int i = 0; i < count; i++)
+            {
+                long seed = firstSeed + i;
+                int result = solver.solve(new Solitaire(seed));
+                long nodes = solver.getNodesSearched();
+                int difficulty = difficulty(nodes);
+                DealGenerator.deal(seed, deck, 0);
+
+                MappedByteBuffer record = records[i >>> CHUNK_BITS];
+                record.putLong(seed);
+                record.putLong(nodes);
+                record.putShort((short) solver.getSolution().length);
+                record.put((byte) result);
+                record.put((byte) difficulty);
+                record.put(deck);
+
+                bands[i] = -1;
+                if (result == Solver.WON)
+                {
+                    bands[i] = band(difficulty);
+                    bandSizes[bands[i]]++;
+                }
+            }
+            for (MappedByteBuffer chunk : records)
+            {
+                chunk.force();
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putInt(count);
+            int start = 0;
+            for (int band = 0; band < NUM_BANDS; band++)
+            {
+                header.putInt(start);
+                start += bandSizes[band];
+            }
+            header.putInt(start);
+
+            MappedByteBuffer[] index = map(channel, FileChannel.MapMode.READ_WRITE, size, start, 4);
+            int entry = 0;
+            for (int band = 0; band < NUM_BANDS; band++)
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    if (bands[i] == band)
+                    {
+                        index[entry >>> CHUNK_BITS].putInt(i);
+                        entry++;
+                    }
+                }
+            }
+            for (MappedByteBuffer chunk : index)
+            {
+                chunk.force();
+            }
+
+            header.flip();
+            channel.write(header, 0);
+        }
+    }
+
+    /**
+     * Scores the difficulty of a deal.
+     *
+     * @param   nodes   the number of positions the solver searched
+     * @return          the difficulty, from 0 up
+     */
+    public static int difficulty(long nodes)
+    {
+        return 64 - Long.numberOfLeadingZeros(nodes);
+    }
+
+    /**
+     * Returns the band of a difficulty.
+     *
+     * @param   difficulty  the difficulty of a deal
+     * @return              EASY, MEDIUM, HARD, or EXPERT
+     */
+    public static int band(int difficulty)
+    {
+        int band = EASY;
+        while (band < BAND_LIMITS.length && difficulty >= BAND_LIMITS[band])
+        {
+            band++;
+        }
+        return band;
+    }
+
+    private ByteBuffer header;
+    private ByteBuffer[] records;
+    private ByteBuffer[] index;   //the band index
+    private int size;
+
+    /**
+     * Constructor for objects of DealDatabase class, which maps a database file
+     * into memory.
+     *
+     * @param   path    the file written by build
+     * @throws  IOException if the file cannot be read or is not a deal database
+     */
+    public DealDatabase(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            if (channel.size() < HEADER_SIZE)
+            {
+                throw new IOException("not a deal database:  " + path);
+            }
+            header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            size = header.getInt(4);
+            if (header.getInt(0) != MAGIC || size < 0)
+            {
+                throw new IOException("not a deal database:  " + path);
+            }
+            long indexStart = HEADER_SIZE + (long) RECORD_SIZE * size;
+            int entries = bandStart(NUM_BANDS);
+            if (entries < 0 || channel.size() != indexStart + 4L * entries)
+            {
+                throw new IOException("truncated deal database:  " + path);
+            }
+            records = map(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE, size, RECORD_SIZE);
+            index = map(channel, FileChannel.MapMode.READ_ONLY, indexStart, entries, 4);
+        }
+    }
+
+    /**
+     * Returns the number of deals in the database.
+     *
+     * @return  the number of records
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Finds the record of a seed.
+     *
+     * @param   seed    the seed of the deal of interest
+     * @return          the number of its record, or -1 if the deal is not in the database
+     */
+    public int find(long seed)
+    {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high)
+        {
+            int middle = (low + high) >>> 1;
+            long found = getSeed(middle);
+            if (found < seed)
+            {
+                low = middle + 1;
+            }
+            else if (found > seed)
+            {
+                high = middle - 1;
+            }
+            else
+            {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the seed of a deal.
+     *
+     * @param   record  the number of the deal's record; 0 <= record < size()
+     * @return          the seed
+     */
+    public long getSeed(int record)
+    {
+        return chunk(record).getLong(offset(record) + SEED);
+    }
+
+    /**
+     * Returns what the solver found about a deal.
+     *
+     * @param   record  the number of the deal's record; 0 <= record < size()
+     * @return          Solver.WON, Solver.LOST, or Solver.UNKNOWN
+     */
+    public int getResult(int record)
+    {
+        return chunk(record).get(offset(record) + RESULT);
+    }
+
+    /**
+     * Returns the number of moves in the solution the solver found for a deal.
+     *
+     * @param   record  the number of the deal's record; 0 <= record < size()
+     * @return          the length of the solution, or 0 if the deal was not won
+     */
+    public int getSolutionLength(int record)
+    {
+        return chunk(record).getShort(offset(record) + LENGTH);
+    }
+
+    /**
+     * Returns the number of positions the solver searched for a deal.
+     *
+     * @param   record  the number of the deal's record; 0 <= record < size()
+     * @return          the number of positions searched
+     */
+    public long getNodesSearched(int record)
+    {
+        return chunk(record).getLong(offset(record) + NODES);
+    }
+
+    /**
+     * Returns the difficulty of a deal.
+     *
+     * @param   record  the number of the deal's record; 0 <= record < size()
+     * @return          the difficulty score
+     */
+    public int getDifficulty(int record)
+    {
+        return chunk(record).get(offset(record) + DIFFICULTY);
+    }
+
+    /**
+     * Copies the cards of a deal into a buffer, in the order DealGenerator.deal
+     * writes them.
+     *
+     * @param   record  the number of the deal's record; 0 <= record < size()
+     * @param   deck    the buffer to be written to
+     * @param   offset  the position in deck of the first card
+     */
+    public void getDeal(int record, byte[] deck, int offset)
+    {
+        chunk(record).get(offset(record) + DEAL, deck, offset, DealGenerator.DEAL_SIZE);
+    }
+
+    /**
+     * Returns the number of winnable deals in a difficulty band.
+     *
+     * @param   band    EASY, MEDIUM, HARD, or EXPERT
+     * @return          the number of deals in the band
+     */
+    public int getBandSize(int band)
+    {
+        return bandStart(band + 1) - bandStart(band);
+    }
+
+    /**
+     * Returns one of the winnable deals in a difficulty band.
+     *
+     * @param   band    EASY, MEDIUM, HARD, or EXPERT
+     * @param   index   the position of the deal in the band; 0 <= index < getBandSize(band)
+     * @return          the number of the deal's record
+     */
+    public int getBandRecord(int band, int index)
+    {
+        int entry = bandStart(band) + index;
+        return this.index[entry >>> CHUNK_BITS].getInt(4 * (entry & CHUNK_MASK));
+    }
+
+    /**
+     * Chooses a winnable deal of a difficulty band at random.
+     *
+     * @param   band    EASY, MEDIUM, HARD, or EXPERT
+     * @param   random  the source of randomness
+     * @return          the number of the deal's record
+     */
+    public int pickWinnable(int band, Random random)
+    {
+        if (getBandSize(band) == 0)
+        {
+            throw new IllegalArgumentException("no winnable deals in band:  " + band);
+        }
+        return getBandRecord(band, random.nextInt(getBandSize(band)));
+    }
+
+    /**
+     * Maps a run of fixed-width entries into memory, in chunks of 2^CHUNK_BITS
+     * entries, so that no entry is split between chunks.
+     *
+     * @param   channel     the file to be mapped
+     * @param   mode        the mode of the mapping
+     * @param   start       the position in the file of the first entry
+     * @param   count       the number of entries
+     * @param   entrySize   the number of bytes in each entry
+     * @return              the chunks, in order
+     * @throws  IOException if the file cannot be mapped
+     */
+    private static MappedByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode,
+                                          long start, int count, int entrySize) throws IOException
+    {
+        MappedByteBuffer[] chunks = new MappedByteBuffer[(int) (((long) count + CHUNK_MASK) >>> CHUNK_BITS)];
+        for (int i = 0; i < chunks.length; i++)
+        {
+            long first = (long) i << CHUNK_BITS;
+            long entries = Math.min(1 << CHUNK_BITS, count - first);
+            chunks[i] = channel.map(mode, start + first * entrySize, entries * entrySize);
+        }
+        return chunks;
+    }
+
+    /**
+     * Returns the chunk holding a record.
+     *
+     * @param   record  the number of the record
+     * @return          the mapped chunk
+     */
+    private ByteBuffer chunk(int record)
+    {
+        return records[record >>> CHUNK_BITS];
+    }
+
+    /**
+     * Returns the position of a record in its chunk.
+     *
+     * @param   record  the number of the record
+     * @return          the offset of its first byte
+     */
+    private static int offset(int record)
+    {
+        return RECORD_SIZE * (record & CHUNK_MASK);
+    }
+
+    /**
+     * Returns where a band starts in the band index.
+     *
+     * @param   band    the band, or NUM_BANDS for the end of the index
+     * @return          the number of index entries before the band
+     */
+    private int bandStart(int band)
+    {
+        return header.getInt(8 + 4 * band);
+    }
+}
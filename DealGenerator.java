@@ -0,0 +1,99 @@
+/**
+ * DealGenerator shuffles decks of PackedCards deterministically: a long seed always
+ * produces the same deal, bit for bit, on every platform. Each deal is a Fisher–Yates
+ * shuffle of the sorted deck driven by a SplitMix64 generator seeded with the deal's
+ * seed, so any one deal may be regenerated on its own from its seed.
+ *
+ * Deals are written into caller-supplied buffers, 52 bytes per deal, so that
+ * generating many deals allocates nothing.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public final class DealGenerator
+{
+    /**
+     * The number of bytes taken by one deal in a buffer.
+     */
+    public static final int DEAL_SIZE = 52;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final byte[] SORTED_DECK = new byte[DEAL_SIZE];
+
+    static
+    {
+        for (int suit = 0; suit < 4; suit++)
+        {
+            for (int rank = 1; rank <= 13; rank++)
+            {
+                SORTED_DECK[suit * 13 + rank - 1] = PackedCard.encode(rank, suit, false);
+            }
+        }
+    }
+
+    private DealGenerator()
+    {
+    }
+
+    /**
+     * Writes the deal for a seed into a buffer. The card at offset + 51 is the top
+     * of the stock.
+     *
+     * @param   seed    the seed of the deal
+     * @param   buffer  the buffer to be written to
+     * @param   offset  the position in buffer of the first card of the deal
+     */
+    public static void deal(long seed, byte[] buffer, int offset)
+    {
+        System.arraycopy(SORTED_DECK, 0, buffer, offset, DEAL_SIZE);
+        long state = seed;
+        for (int i = DEAL_SIZE - 1; i > 0; i--)
+        {
+            state += GOLDEN_GAMMA;
+            int j = (int) (((mix(state) >>> 32) * (i + 1)) >>> 32);
+            byte temp = buffer[offset + i];
+            buffer[offset + i] = buffer[offset + j];
+            buffer[offset + j] = temp;
+        }
+    }
+
+    /**
+     * Writes the deals for count consecutive seeds, starting at firstSeed, into
+     * a buffer, one after another.
+     *
+     * @param   firstSeed   the seed of the first deal
+     * @param   count       the number of deals to be written
+     * @param   buffer      the buffer to be written to; its length must be at
+     *                      least count * DEAL_SIZE
+     */
+    public static void deal(long firstSeed, int count, byte[] buffer)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            deal(firstSeed + i, buffer, i * DEAL_SIZE);
+        }
+    }
+
+    /**
+     * Chooses a seed for a new deal when the user has not asked for one.
+     *
+     * @return  a seed which differs from run to run
+     */
+    public static long randomSeed()
+    {
+        return mix(System.nanoTime() + GOLDEN_GAMMA * Thread.currentThread().getId());
+    }
+
+    /**
+     * The SplitMix64 output function, which scrambles the bits of the generator state.
+     *
+     * @param   z   the generator state
+     * @return      a well-mixed 64-bit value
+     */
+    private static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,131 @@
+import java.io.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * An EventLog writes Telemetry events to a stream without making the threads that
+ * raise them wait on the stream. Events are put in a bounded ring buffer, as a kind,
+ * an argument and a time, and a daemon thread takes them out, formats them, and
+ * prints them. Raising an event claims a slot with one compare-and-set and formats
+ * nothing; if the ring is full the event is dropped and counted instead of blocking.
+ *
+ * Each slot has a sequence number which says whether it is free for the event with
+ * a given position in the log or holds it, so any number of threads may raise
+ * events at once.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class EventLog implements Runnable
+{
+    private static final long IDLE_NANOS = 1000000L;   //how long the writer sleeps when the ring is empty
+
+    private long[] times;
+    private int[] kinds;
+    private int[] args;
+    private AtomicLongArray sequences;
+    private int mask;
+    private AtomicLong head;   //the position of the next event to be added
+    private long tail;         //the position of the next event to be written; writer thread only
+    private AtomicLong dropped;
+    private PrintStream out;
+
+    /**
+     * Constructor for objects of EventLog class, which starts the thread writing
+     * the log.
+     *
+     * @param   capacity    the number of events the ring holds; a power of 2
+     * @param   out         the stream the events are written to
+     */
+    public EventLog(int capacity, PrintStream out)
+    {
+        times = new long[capacity];
+        kinds = new int[capacity];
+        args = new int[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++)
+        {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+        head = new AtomicLong();
+        dropped = new AtomicLong();
+        this.out = out;
+
+        Thread writer = new Thread(this, "event log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Adds an event to the log, or drops it if the ring is full.
+     *
+     * @param   kind    the kind of event, one of the Telemetry event constants
+     * @param   arg     the pile or foundation the event concerns, if any
+     */
+    public void add(int kind, int arg)
+    {
+        long position;
+        while (true)
+        {
+            position = head.get();
+            long sequence = sequences.get((int) position & mask);
+            if (sequence == position)
+            {
+                if (head.compareAndSet(position, position + 1))
+                {
+                    break;
+                }
+            }
+            else if (sequence < position)
+            {
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+
+        int slot = (int) position & mask;
+        times[slot] = System.currentTimeMillis();
+        kinds[slot] = kind;
+        args[slot] = arg;
+        sequences.lazySet(slot, position + 1);
+    }
+
+    /**
+     * Returns the number of events dropped because the ring was full.
+     *
+     * @return  the number of events dropped
+     */
+    public long getDropped()
+    {
+        return dropped.get();
+    }
+
+    /**
+     * Writes events as they arrive; run by the log's own thread.
+     */
+    public void run()
+    {
+        boolean written = false;   //whether anything has been written since the last flush
+        while (true)
+        {
+            int slot = (int) tail & mask;
+            if (sequences.get(slot) == tail + 1)
+            {
+                out.println(times[slot] + " " + Telemetry.describe(kinds[slot], args[slot]));
+                sequences.lazySet(slot, tail + mask + 1);
+                tail++;
+                written = true;
+            }
+            else
+            {
+                if (written)
+                {
+                    out.flush();
+                    written = false;
+                }
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * A GameEngine is the single writer of a game of Solitaire. Commands (the moves a
+ * click asks for, an undo, a request for a hint) are queued and applied one at a
+ * time, in the order they were submitted, on the engine's own thread, so the thread
+ * submitting them never waits on the game or races with another writer.
+ *
+ * After every command the engine publishes an immutable GameSnapshot of the game,
+ * which any thread may read through getSnapshot without locking, and hands the
+ * snapshot to a listener on the engine's thread. A display draws only from
+ * snapshots, so drawing is never tied to the game while it changes.
+ *
+ * A command which throws is reported to the thread's uncaught exception handler,
+ * and the snapshot after it is published all the same, so that what is shown,
+ * and the inputs waiting on it, keep up with the game even if the command left it
+ * partly changed.
+ *
+ * Once a game has been given to an engine, it must only be changed through
+ * commands.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class GameEngine
+{
+    private Solitaire game;
+    private Consumer<GameSnapshot> listener;
+    private ExecutorService executor;
+    private volatile GameSnapshot snapshot;
+    private long version;   //commands applied; touched only on the engine's thread
+
+    /**
+     * Constructor for objects of GameEngine class.
+     *
+     * @param   game        the game to be played; owned by the engine from now on
+     * @param   listener    receives each snapshot, in order, on the engine's thread;
+     *                      should hand it off (to the Swing event thread, say) rather
+     *                      than do much work itself
+     */
+    public GameEngine(Solitaire game, Consumer<GameSnapshot> listener)
+    {
+        this.game = game;
+        this.listener = listener;
+        executor = Executors.newSingleThreadExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "game engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshot = new GameSnapshot(game, 0);
+        game.clearDirty();
+    }
+
+    /**
+     * Returns the snapshot published after the last command applied.
+     *
+     * @return  the latest snapshot
+     */
+    public GameSnapshot getSnapshot()
+    {
+        return snapshot;
+    }
+
+    /**
+     * Queues a command, to be applied to the game on the engine's thread after
+     * every command submitted before it.
+     *
+     * @param   command     changes the game, or reads it; must not keep a reference
+     *                      to the game once it returns
+     */
+    public void submit(Consumer<Solitaire> command)
+    {
+        executor.execute(() -> apply(command));
+    }
+
+    /**
+     * Waits until every command submitted so far has been applied and its snapshot
+     * handed to the listener.
+     *
+     * @throws  InterruptedException if the thread is interrupted while waiting
+     */
+    public void flush() throws InterruptedException
+    {
+        try
+        {
+            executor.submit(() -> { }).get();
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("the engine failed", e.getCause());
+        }
+    }
+
+    /**
+     * Stops the engine's thread, dropping any commands not yet applied. The engine
+     * may not be used afterwards.
+     */
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Applies a command and publishes the snapshot after it.
+     *
+     * @param   command     the command to be applied
+     */
+    private void apply(Consumer<Solitaire> command)
+    {
+        try
+        {
+            command.accept(game);
+        }
+        catch (RuntimeException e)
+        {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+        version++;
+        GameSnapshot next = new GameSnapshot(game, version);
+        game.clearDirty();
+        snapshot = next;
+        listener.accept(next);
+    }
+}
@@ -0,0 +1,159 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+/**
+ * A GameRecordReader streams the records of a file written by a GameRecordWriter,
+ * one game at a time. The file is read through a direct buffer, and the moves of
+ * each record are unpacked into an array which is reused from record to record, so
+ * reading allocates nothing once the longest game has been seen.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class GameRecordReader implements Closeable
+{
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private long seed;
+    private int[] moves;
+    private int moveCount;
+
+    /**
+     * Constructor for objects of GameRecordReader class.
+     *
+     * @param   path    the file the games are to be read from
+     * @throws  IOException if the file cannot be opened or is not a game record file
+     */
+    public GameRecordReader(Path path) throws IOException
+    {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try
+        {
+            buffer = ByteBuffer.allocateDirect(GameRecordWriter.BUFFER_SIZE);
+            buffer.flip();   //empty until the first fill
+            moves = new int[256];
+
+            if (!fill(4) || buffer.getInt() != GameRecordWriter.MAGIC)
+            {
+                throw new IOException("not a game record file:  " + path);
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next record, whose seed and moves are then returned by the getters.
+     *
+     * @return  true if a record was read; otherwise (the end of the file has been
+     *          reached),
+     *          false
+     * @throws  IOException if the file cannot be read or ends partway through a record
+     */
+    public boolean next() throws IOException
+    {
+        if (!fill(1))
+        {
+            return false;
+        }
+        if (!fill(GameRecordWriter.HEADER_SIZE))
+        {
+            throw new EOFException("truncated game record");
+        }
+        seed = buffer.getLong();
+        moveCount = buffer.getInt();
+        if (moveCount < 0)
+        {
+            throw new IOException("bad move count:  " + moveCount);
+        }
+
+        if (moves.length < moveCount)
+        {
+            moves = new int[Math.max(moveCount, moves.length * 2)];
+        }
+        for (int i = 0; i < moveCount; i++)
+        {
+            if (!fill(2))
+            {
+                throw new EOFException("truncated game record");
+            }
+            moves[i] = buffer.getShort() & 0xFFFF;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the seed of the deal of the current record.
+     *
+     * @return  the seed of the deal
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Returns the number of moves in the current record.
+     *
+     * @return  the number of moves
+     */
+    public int getMoveCount()
+    {
+        return moveCount;
+    }
+
+    /**
+     * Returns one of the moves of the current record.
+     *
+     * @param   index   the number of moves made before it; 0 <= index < getMoveCount()
+     * @return          the move, encoded by Move, as it was made
+     */
+    public int getMove(int index)
+    {
+        return moves[index];
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws  IOException if the file cannot be closed
+     */
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+
+    /**
+     * Reads from the file until the buffer holds a given number of unread bytes.
+     *
+     * @param   bytes   the number of bytes needed
+     * @return          true if that many bytes are buffered; otherwise (the file
+     *                  ended first),
+     *                  false
+     * @throws  IOException if the file cannot be read
+     */
+    private boolean fill(int bytes) throws IOException
+    {
+        if (buffer.remaining() >= bytes)
+        {
+            return true;
+        }
+
+        buffer.compact();
+        while (buffer.position() < bytes)
+        {
+            if (channel.read(buffer) < 0)
+            {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+}
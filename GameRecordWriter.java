@@ -0,0 +1,132 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+/**
+ * A GameRecordWriter archives played games to a file in a compact binary format.
+ * The file starts with the 4 byte MAGIC number. Each game that follows is a record
+ * of its 8 byte deal seed, a 4 byte count of moves, and 2 bytes for each move, packed
+ * by Move with its flip bit, all big-endian; the seed is enough to deal the game
+ * again, so the record holds nothing else. Records are gathered in a direct buffer
+ * and handed to the FileChannel a buffer at a time.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class GameRecordWriter implements Closeable
+{
+    public static final int MAGIC = 0x534F4C31;   //"SOL1"
+    public static final int HEADER_SIZE = 12;     //bytes before a record's moves
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private long records;
+
+    /**
+     * Constructor for objects of GameRecordWriter class, which replaces any file
+     * already at the path.
+     *
+     * @param   path    the file the games are to be written to
+     * @throws  IOException if the file cannot be opened
+     */
+    public GameRecordWriter(Path path) throws IOException
+    {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                   StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.putInt(MAGIC);
+    }
+
+    /**
+     * Writes the record of a game: its seed and every move made in it so far.
+     *
+     * @param   game    the game to be archived
+     * @throws  IOException if the file cannot be written
+     */
+    public void write(Solitaire game) throws IOException
+    {
+        reserve(HEADER_SIZE);
+        buffer.putLong(game.getSeed());
+        buffer.putInt(game.getMoveCount());
+        for (int i = 0; i < game.getMoveCount(); i++)
+        {
+            reserve(2);
+            buffer.putShort((short) game.getMove(i));
+        }
+        records++;
+    }
+
+    /**
+     * Writes the record of a game from its seed and moves.
+     *
+     * @param   seed    the seed of the deal
+     * @param   moves   the moves made, each encoded by Move
+     * @param   count   the number of moves in moves
+     * @throws  IOException if the file cannot be written
+     */
+    public void write(long seed, int[] moves, int count) throws IOException
+    {
+        reserve(HEADER_SIZE);
+        buffer.putLong(seed);
+        buffer.putInt(count);
+        for (int i = 0; i < count; i++)
+        {
+            reserve(2);
+            buffer.putShort((short) moves[i]);
+        }
+        records++;
+    }
+
+    /**
+     * Returns the number of records written so far.
+     *
+     * @return  the number of games written
+     */
+    public long getRecordCount()
+    {
+        return records;
+    }
+
+    /**
+     * Writes everything buffered so far to the file.
+     *
+     * @throws  IOException if the file cannot be written
+     */
+    public void flush() throws IOException
+    {
+        buffer.flip();
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes everything buffered and closes the file.
+     *
+     * @throws  IOException if the file cannot be written
+     */
+    public void close() throws IOException
+    {
+        flush();
+        channel.close();
+    }
+
+    /**
+     * Makes room in the buffer, writing it out if it is too full.
+     *
+     * @param   bytes   the number of bytes about to be put
+     * @throws  IOException if the file cannot be written
+     */
+    private void reserve(int bytes) throws IOException
+    {
+        if (buffer.remaining() < bytes)
+        {
+            flush();
+        }
+    }
+}
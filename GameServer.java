@@ -0,0 +1,480 @@
+import com.sun.net.httpserver.*;
+import java.io.*;
+import java.net.*;
+import java.nio.charset.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * A GameServer hosts many games of Solitaire at once over HTTP, using the JDK's
+ * built-in HttpServer. Each session is a headless Solitaire (its Tableau, its move
+ * journal, and a time it was last used) kept in a concurrent map, so an idle
+ * session costs a few hundred bytes and no thread. Requests are handled on a new
+ * virtual thread each where the JVM has them (Java 21 on), or on a cached pool of
+ * platform threads before then; requests to one session are handled one at a time.
+ * A sweeper evicts sessions which have been idle too long.
+ *
+ * The protocol is plain text over GET or POST, with parameters in the query:
+ *
+ *     /new[?seed=S]        starts a session; replies "id seed" and then its state
+ *     /move?id=I&move=M    makes the move M, encoded by Move; replies its state,
+ *                          or 409 if the move is illegal
+ *     /undo?id=I           undoes the last move; replies its state, or 409
+ *     /close?id=I          ends a session
+ *
+ * A state is one line: 1 if the game has been won or else 0, the number of moves
+ * made, and then every legal move, encoded by Move. An unknown session gets 404.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class GameServer
+{
+    static
+    {
+        //the HttpServer writes a reply's headers and body separately, so with Nagle's
+        //algorithm on, every reply waits for the client's delayed ack
+        if (System.getProperty("sun.net.httpserver.nodelay") == null)
+        {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * Runs a server until the process is killed.
+     *
+     * @param   args    optionally, the port (by default, 8080) and the seconds a
+     *                  session may be idle (by default, 300)
+     * @throws  IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        long idleSeconds = args.length > 1 ? Long.parseLong(args[1]) : 300;
+
+        GameServer server = new GameServer(port, idleSeconds * 1000);
+        server.start();
+        System.out.println("serving on port " + server.getPort()
+                           + (hasVirtualThreads() ? " with virtual threads" : " with platform threads"));
+    }
+
+    /**
+     * Determines whether this JVM can start virtual threads.
+     *
+     * @return  true if Executors.newVirtualThreadPerTaskExecutor exists; otherwise,
+     *          false
+     */
+    public static boolean hasVirtualThreads()
+    {
+        try
+        {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        }
+        catch (NoSuchMethodException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Creates an executor which runs each task on a new virtual thread, or on a
+     * cached pool of platform threads if this JVM has no virtual threads. The
+     * method is looked up reflectively so that the server still compiles and runs
+     * on releases before Java 21.
+     *
+     * @return  the executor
+     */
+    public static ExecutorService newThreadPerTaskExecutor()
+    {
+        try
+        {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                                                    .invoke(null);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private HttpServer server;
+    private ExecutorService handlers;
+    private ScheduledExecutorService sweeper;
+    private ConcurrentHashMap<Long, Session> sessions;
+    private AtomicLong nextId;
+    private long idleNanos;
+
+    /**
+     * Constructor for objects of GameServer class, which binds the port but does
+     * not start serving.
+     *
+     * @param   port        the port to listen on, or 0 for any free port
+     * @param   idleMillis  the milliseconds a session may go unused before it is evicted
+     * @throws  IOException if the port cannot be bound
+     */
+    public GameServer(int port, long idleMillis) throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        handlers = newThreadPerTaskExecutor();
+        server.setExecutor(handlers);
+        sessions = new ConcurrentHashMap<Long, Session>();
+        nextId = new AtomicLong(1);
+        idleNanos = idleMillis * 1000000L;
+
+        server.createContext("/new", exchange -> handle(exchange, this::newSession));
+        server.createContext("/move", exchange -> handle(exchange, this::move));
+        server.createContext("/undo", exchange -> handle(exchange, this::undo));
+        server.createContext("/close", exchange -> handle(exchange, this::close));
+    }
+
+    /**
+     * Starts serving requests and sweeping idle sessions.
+     */
+    public void start()
+    {
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "session sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleNanos / 4);
+        sweeper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.NANOSECONDS);
+        server.start();
+    }
+
+    /**
+     * Stops serving, after waiting up to a second for requests in progress.
+     */
+    public void stop()
+    {
+        server.stop(1);
+        sweeper.shutdown();
+        handlers.shutdown();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return  the port
+     */
+    public int getPort()
+    {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the number of sessions open.
+     *
+     * @return  the number of sessions
+     */
+    public int getSessionCount()
+    {
+        return sessions.size();
+    }
+
+    /**
+     * Removes every session which has been idle longer than the idle limit.
+     *
+     * @return  the number of sessions evicted
+     */
+    public int evictIdle()
+    {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Session session : sessions.values())
+        {
+            if (now - session.lastUsed > idleNanos && sessions.remove(session.id, session))
+            {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Handles /new.
+     *
+     * @param   query   the parameters of the request
+     * @return          the reply
+     * @throws  RequestException if the seed is malformed
+     */
+    private String newSession(String query) throws RequestException
+    {
+        String seedText = parameter(query, "seed");
+        Solitaire game;
+        if (seedText == null)
+        {
+            game = new Solitaire();
+        }
+        else
+        {
+            game = new Solitaire(parseLong(seedText));
+        }
+
+        Session session = new Session(nextId.getAndIncrement(), game);
+        String reply = session.id + " " + game.getSeed() + "\n" + session.describe();
+        sessions.put(session.id, session);
+        return reply;
+    }
+
+    /**
+     * Handles /move.
+     *
+     * @param   query   the parameters of the request
+     * @return          the reply
+     * @throws  RequestException if the session is unknown or the move is illegal
+     */
+    private String move(String query) throws RequestException
+    {
+        Session session = session(query);
+        String moveText = parameter(query, "move");
+        if (moveText == null)
+        {
+            throw new RequestException(400, "missing parameter:  move");
+        }
+        int move = (int) parseLong(moveText);
+        if (!moveText.equals(Integer.toString(Move.encode(Move.from(move), Move.to(move), Move.count(move))))
+            || Move.from(move) >= Tableau.NUM_PILES || Move.to(move) >= Tableau.NUM_PILES)
+        {
+            throw new RequestException(400, "bad move:  " + moveText);
+        }
+
+        session.lock.lock();
+        try
+        {
+            if (!session.game.makeMove(move))
+            {
+                throw new RequestException(409, "illegal move:  " + Move.toString(move));
+            }
+            return session.describe();
+        }
+        finally
+        {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * Handles /undo.
+     *
+     * @param   query   the parameters of the request
+     * @return          the reply
+     * @throws  RequestException if the session is unknown or has no move to undo
+     */
+    private String undo(String query) throws RequestException
+    {
+        Session session = session(query);
+        session.lock.lock();
+        try
+        {
+            if (!session.game.undo())
+            {
+                throw new RequestException(409, "nothing to undo");
+            }
+            return session.describe();
+        }
+        finally
+        {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * Handles /close.
+     *
+     * @param   query   the parameters of the request
+     * @return          the reply
+     * @throws  RequestException if the session is unknown
+     */
+    private String close(String query) throws RequestException
+    {
+        Session session = session(query);
+        sessions.remove(session.id);
+        return "closed";
+    }
+
+    /**
+     * Finds the session named by a request and marks it as used.
+     *
+     * @param   query   the parameters of the request
+     * @return          the session
+     * @throws  RequestException if the id is missing, malformed, or unknown
+     */
+    private Session session(String query) throws RequestException
+    {
+        String idText = parameter(query, "id");
+        if (idText == null)
+        {
+            throw new RequestException(400, "missing parameter:  id");
+        }
+        Session session = sessions.get(parseLong(idText));
+        if (session == null)
+        {
+            throw new RequestException(404, "no such session:  " + idText);
+        }
+        session.lastUsed = System.nanoTime();
+        return session;
+    }
+
+    /**
+     * Answers a request with a handler's reply, or with the error it raised.
+     *
+     * @param   exchange    the request
+     * @param   handler     computes the reply from the query of the request
+     * @throws  IOException if the reply cannot be sent
+     */
+    private void handle(HttpExchange exchange, Handler handler) throws IOException
+    {
+        int status = 200;
+        String reply;
+        try
+        {
+            reply = handler.reply(exchange.getRequestURI().getRawQuery());
+        }
+        catch (RequestException e)
+        {
+            status = e.status;
+            reply = e.getMessage();
+        }
+
+        byte[] body = (reply + "\n").getBytes(StandardCharsets.US_ASCII);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody())
+        {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Finds a parameter in a query string.
+     *
+     * @param   query   the query, as name=value pairs separated by &amp;; may be null
+     * @param   name    the name of the parameter
+     * @return          the value of the parameter, or null if it is absent
+     */
+    private static String parameter(String query, String name)
+    {
+        if (query == null)
+        {
+            return null;
+        }
+        for (String pair : query.split("&"))
+        {
+            int equals = pair.indexOf('=');
+            if (equals == name.length() && pair.startsWith(name))
+            {
+                return pair.substring(equals + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a number sent by a client.
+     *
+     * @param   text    the number
+     * @return          its value
+     * @throws  RequestException if text is not a number
+     */
+    private static long parseLong(String text) throws RequestException
+    {
+        try
+        {
+            return Long.parseLong(text);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new RequestException(400, "bad number:  " + text);
+        }
+    }
+
+    /**
+     * A Handler computes the reply to one kind of request.
+     */
+    private interface Handler
+    {
+        /**
+         * Computes a reply.
+         *
+         * @param   query   the query of the request; may be null
+         * @return          the body of the reply
+         * @throws  RequestException if the request cannot be carried out
+         */
+        String reply(String query) throws RequestException;
+    }
+
+    /**
+     * A RequestException is raised when a request cannot be carried out, and
+     * carries the HTTP status to be sent back.
+     */
+    private static class RequestException extends Exception
+    {
+        private static final long serialVersionUID = 1L;
+
+        private int status;
+
+        /**
+         * Constructor for objects of RequestException class.
+         *
+         * @param   status  the HTTP status of the reply
+         * @param   message the body of the reply
+         */
+        RequestException(int status, String message)
+        {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * A Session is one game being played on the server. Its requests hold its lock
+     * rather than its monitor, since a virtual thread blocked on a monitor pins the
+     * platform thread carrying it (before Java 24).
+     */
+    private static class Session
+    {
+        private long id;
+        private Solitaire game;
+        private ReentrantLock lock;
+        private volatile long lastUsed;
+
+        /**
+         * Constructor for objects of Session class.
+         *
+         * @param   id      the id of the session
+         * @param   game    the game played in the session
+         */
+        Session(long id, Solitaire game)
+        {
+            this.id = id;
+            this.game = game;
+            lock = new ReentrantLock();
+            lastUsed = System.nanoTime();
+        }
+
+        /**
+         * Describes the state of the game, as it is sent to the client. Must be
+         * called while holding the session's lock, unless no other thread can see
+         * the session yet.
+         *
+         * @return  whether the game is won, the number of moves made, and the
+         *          legal moves
+         */
+        String describe()
+        {
+            StringBuilder state = new StringBuilder();
+            state.append(game.hasWon() ? 1 : 0).append(' ').append(game.getMoveCount());
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int count = game.getLegalMoves(moves);
+            for (int i = 0; i < count; i++)
+            {
+                state.append(' ').append(moves[i]);
+            }
+            return state.toString();
+        }
+    }
+}
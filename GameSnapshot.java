@@ -0,0 +1,253 @@
+/**
+ * A GameSnapshot is an immutable picture of a game of Solitaire at one moment,
+ * published by a GameEngine after each command it applies. Any thread may read a
+ * snapshot, without locking, while the engine goes on changing the game.
+ *
+ * A snapshot keeps its own copy of the game's Tableau, which is one small array,
+ * rather than sharing any structure with the game; the copy is never changed. It
+ * also records which piles the command changed, and from which position up, so
+ * that a display need only redraw those.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public final class GameSnapshot
+{
+    //the moves isLegal lists, one array for each thread which asks
+    private static final ThreadLocal<int[]> LEGAL_MOVES =
+        ThreadLocal.withInitial(() -> new int[MoveGenerator.MAX_MOVES]);
+
+    private final long version;
+    private final long seed;
+    private final Tableau tableau;
+    private final int moveCount;
+    private final boolean canUndo;
+    private final boolean canRedo;
+    private final boolean won;
+    private final int dirtyPiles;       //bit p is set if Tableau pile p changed
+    private final int[] dirtyDepths;    //the lowest position changed in each pile
+
+    /**
+     * Constructor for objects of GameSnapshot class, which copies the state of a
+     * game and the record of which of its piles have changed.
+     *
+     * @param   game        the game to be copied; must not change while it is copied
+     * @param   version     the number of commands applied to the game so far
+     */
+    public GameSnapshot(Solitaire game, long version)
+    {
+        this.version = version;
+        seed = game.getSeed();
+        tableau = new Tableau(game.getTableau());
+        moveCount = game.getMoveCount();
+        canUndo = game.canUndo();
+        canRedo = game.canRedo();
+        won = game.hasWon();
+
+        int dirty = 0;
+        dirtyDepths = new int[Tableau.NUM_PILES];
+        for (int p = 0; p < Tableau.NUM_PILES; p++)
+        {
+            if (game.isDirty(p))
+            {
+                dirty |= 1 << p;
+                dirtyDepths[p] = game.getDirtyDepth(p);
+            }
+        }
+        dirtyPiles = dirty;
+    }
+
+    /**
+     * Returns the number of commands the engine had applied when the snapshot was
+     * taken; later snapshots have greater versions.
+     *
+     * @return  the version of the snapshot
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Returns the seed of the deal being played.
+     *
+     * @return  the seed of the deal
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Determines whether a pile of the tableau was changed by the command after
+     * which the snapshot was taken.
+     *
+     * @param   pile    the tableau pile of interest; 0 <= pile < Tableau.NUM_PILES
+     * @return          true if the pile changed; otherwise,
+     *                  false
+     */
+    public boolean isDirty(int pile)
+    {
+        return (dirtyPiles & (1 << pile)) != 0;
+    }
+
+    /**
+     * Returns the lowest position in a pile of the tableau which was changed by the
+     * command after which the snapshot was taken.
+     *
+     * @param   pile    the tableau pile of interest; 0 <= pile < Tableau.NUM_PILES
+     * @return          the position, where 0 is the bottom of the pile
+     */
+    public int getDirtyDepth(int pile)
+    {
+        return dirtyDepths[pile];
+    }
+
+    /**
+     * Returns the card at the top of a pile of the tableau; returns null if that
+     * pile is empty.
+     *
+     * @param   pile    the tableau pile of interest; 0 <= pile < Tableau.NUM_PILES
+     * @return          the card at the top of the pile
+     */
+    private Card topCard(int pile)
+    {
+        if (tableau.isEmpty(pile))
+        {
+            return null;
+        }
+        return Card.of(tableau.top(pile));
+    }
+
+    /**
+     * Returns the card at the top of the stock; returns null if the stock is empty.
+     *
+     * @return  the first card in the stock
+     */
+    public Card getStockCard()
+    {
+        return topCard(Tableau.STOCK);
+    }
+
+    /**
+     * Returns the card at the top of the waste; returns null if the waste is empty.
+     *
+     * @return  the first card in the waste
+     */
+    public Card getWasteCard()
+    {
+        return topCard(Tableau.WASTE);
+    }
+
+    /**
+     * Returns the card at the top of a foundation; returns null if it is empty.
+     *
+     * @param   index   the index of the foundation; 0 <= index <= 3
+     * @return          the card at the top of the foundation at index index
+     */
+    public Card getFoundationCard(int index)
+    {
+        return topCard(Tableau.FOUNDATION + index);
+    }
+
+    /**
+     * Returns the number of cards in a pile.
+     *
+     * @param   index   the index of the pile; 0 <= index <= 6
+     * @return          the number of cards in the pile at index index
+     */
+    public int getPileSize(int index)
+    {
+        return tableau.size(Tableau.PILE + index);
+    }
+
+    /**
+     * Returns a card in a pile. Whether the card is face up is told by getFaceUpCount.
+     *
+     * @param   index   the index of the pile; 0 <= index <= 6
+     * @param   depth   the position of the card, where 0 is the bottom of the pile;
+     *                  0 <= depth < getPileSize(index)
+     * @return          the card at position depth in the pile at index index
+     */
+    public Card getPileCard(int index, int depth)
+    {
+        return Card.of(tableau.card(Tableau.PILE + index, depth));
+    }
+
+    /**
+     * Counts the face up cards at the top of a pile.
+     *
+     * @param   index   the index of the pile; 0 <= index <= 6
+     * @return          the number of face up cards at the top of the pile at index index
+     */
+    public int getFaceUpCount(int index)
+    {
+        return tableau.faceUpCount(Tableau.PILE + index);
+    }
+
+    /**
+     * Returns the number of moves which had been made.
+     *
+     * @return  the number of moves
+     */
+    public int getMoveCount()
+    {
+        return moveCount;
+    }
+
+    /**
+     * Determines whether there was a move to be undone.
+     *
+     * @return  true if at least one move had been made; otherwise,
+     *          false
+     */
+    public boolean canUndo()
+    {
+        return canUndo;
+    }
+
+    /**
+     * Determines whether there was a move to be redone.
+     *
+     * @return  true if a move had been undone and no other move made since; otherwise,
+     *          false
+     */
+    public boolean canRedo()
+    {
+        return canRedo;
+    }
+
+    /**
+     * Determines whether the game had been won.
+     *
+     * @return  true if every foundation held a complete suit; otherwise,
+     *          false
+     */
+    public boolean hasWon()
+    {
+        return won;
+    }
+
+    /**
+     * Determines whether a move was legal in the position the snapshot shows. By
+     * the time the move is applied, the game may have moved on, so the move must be
+     * checked again then.
+     *
+     * @param   move    the move, encoded by Move
+     * @return          true if MoveGenerator.legalMoves lists the move; otherwise,
+     *                  false
+     */
+    public boolean isLegal(int move)
+    {
+        int[] moves = LEGAL_MOVES.get();
+        int count = MoveGenerator.legalMoves(tableau, moves, 0);
+        for (int i = 0; i < count; i++)
+        {
+            if (moves[i] == move)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * A GreedyPolicy plays the first move listed by MoveGenerator.searchMoves: a move
+ * to the foundations if there is one, then a move between piles, then a move from
+ * the waste. It only draws from the stock when nothing else can be done, and never
+ * makes a move which undoes the move before it.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class GreedyPolicy implements PlayPolicy
+{
+    private int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private int lastMove = -1;
+
+    /**
+     * Called before the first move of each game.
+     *
+     * @param   game    the game about to be played
+     */
+    public void newGame(Solitaire game)
+    {
+        lastMove = -1;
+    }
+
+    /**
+     * Chooses the next move.
+     *
+     * @param   game    the game being played
+     * @return          the move to be made, encoded by Move, or -1 to give up
+     */
+    public int nextMove(Solitaire game)
+    {
+        int count = MoveGenerator.searchMoves(game.getTableau(), moves, 0);
+        for (int i = 0; i < count; i++)
+        {
+            int move = moves[i];
+            if (!isReverse(move, lastMove))
+            {
+                lastMove = move;
+                return move;
+            }
+        }
+        lastMove = -1;
+        return -1;
+    }
+
+    /**
+     * Determines whether a move puts back the cards moved by another move.
+     *
+     * @param   move    the packed move of interest
+     * @param   other   the packed move before it, or -1
+     * @return          true if move undoes other; otherwise,
+     *                  false
+     */
+    private static boolean isReverse(int move, int other)
+    {
+        return other != -1 && Move.from(move) == Move.to(other) && Move.to(move) == Move.from(other)
+               && Move.count(move) == Move.count(other) && Move.from(move) >= Tableau.PILE;
+    }
+}
@@ -0,0 +1,165 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * A HintEngine finds a good next move for a game on a background thread, so that
+ * the thread asking (the Swing event thread, say) never waits on the search. The
+ * hint is the first move of a win if a Solver finds one within the time budget, or
+ * else the first move MoveGenerator.searchMoves would try.
+ *
+ * Only the newest request matters: a new request, or cancel, interrupts the search
+ * of the one before, and a search whose request is no longer the newest never
+ * reports. Hints the solver found are kept in a bounded least-recently-used cache
+ * keyed by the Zobrist hash of the position, so asking again about a position
+ * answers at once; a fallback move is not, so asking again searches again.
+ *
+ * The engine's thread and solver, whose transposition table is large, are only
+ * created by the first request which is not answered from the cache.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class HintEngine
+{
+    private ExecutorService executor;
+    private Solver solver;   //created and used by the engine's thread
+    private long budget;
+    private Map<Long, Integer> cache;
+    private Future<?> pending;
+    private long generation;   //counts requests and cancels; a search reports only if it is unchanged
+
+    /**
+     * Constructor for objects of HintEngine class.
+     *
+     * @param   budget      the greatest number of milliseconds one search may take
+     * @param   cacheSize   the greatest number of positions whose hints are kept
+     */
+    public HintEngine(long budget, int cacheSize)
+    {
+        this.budget = budget;
+        cache = new LinkedHashMap<Long, Integer>(16, 0.75f, true)
+        {
+            protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest)
+            {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Asks for a hint for the current position of a game, cancelling any request
+     * still in progress. The game is copied, so it may go on changing.
+     *
+     * @param   game        the game to be hinted
+     * @param   callback    receives the hint, as a move encoded by Move, or -1 if
+     *                      there is no move; called at once if the hint is cached,
+     *                      or else on the engine's thread, and never if the request
+     *                      is superseded
+     */
+    public synchronized void request(Solitaire game, IntConsumer callback)
+    {
+        cancel();
+        long hash = Zobrist.hash(game.getTableau());
+        Integer cached = cache.get(hash);
+        if (cached != null)
+        {
+            callback.accept(cached);
+            return;
+        }
+
+        if (executor == null)
+        {
+            executor = Executors.newSingleThreadExecutor(runnable ->
+            {
+                Thread thread = new Thread(runnable, "hint engine");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        Solitaire copy = new Solitaire(game);
+        long request = generation;
+        pending = executor.submit(() ->
+        {
+            int hint = solve(copy);
+            boolean solved = hint != -1;
+            if (!solved)
+            {
+                hint = fallback(copy);
+            }
+            synchronized (this)
+            {
+                if (!Thread.currentThread().isInterrupted() && generation == request)
+                {
+                    if (solved)
+                    {
+                        cache.put(hash, hint);
+                    }
+                    pending = null;
+                    callback.accept(hint);
+                }
+            }
+        });
+    }
+
+    /**
+     * Cancels the request in progress, if any; its callback will not be called.
+     */
+    public synchronized void cancel()
+    {
+        generation++;
+        if (pending != null)
+        {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+
+    /**
+     * Stops the engine's thread. The engine may not be used afterwards.
+     */
+    public synchronized void shutdown()
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Searches for a win from a position.
+     *
+     * @param   game    the position, owned by the engine's thread
+     * @return          the first move of the win, encoded by Move, or -1 if the
+     *                  solver found none within the budget
+     */
+    private int solve(Solitaire game)
+    {
+        if (solver == null)
+        {
+            solver = new Solver(20, Long.MAX_VALUE, budget);
+        }
+        if (solver.solve(game) == Solver.WON && solver.getSolution().length > 0)
+        {
+            return solver.getSolution()[0];
+        }
+        return -1;
+    }
+
+    /**
+     * Chooses the move to hint when the solver found no win: the first move
+     * MoveGenerator.searchMoves would try.
+     *
+     * @param   game    the position
+     * @return          the move, encoded by Move, or -1 if there is no move
+     */
+    private int fallback(Solitaire game)
+    {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        if (MoveGenerator.searchMoves(game.getTableau(), moves, 0) == 0)
+        {
+            return -1;
+        }
+        return moves[0];
+    }
+}
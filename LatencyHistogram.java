@@ -0,0 +1,154 @@
+import java.util.concurrent.atomic.*;
+
+/**
+ * A LatencyHistogram counts durations in buckets which grow geometrically, four
+ * to each doubling, so that it covers nanoseconds to hours in a few hundred counters
+ * and reports any percentile to within 25%. Recording a duration is a few shifts
+ * and one atomic increment; durations may be recorded and read from any thread.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BITS = 2;   //the base 2 logarithm of the buckets per doubling
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private AtomicLongArray counts;
+    private AtomicLong total;
+    private AtomicLong max;
+
+    /**
+     * Constructor for objects of LatencyHistogram class.
+     */
+    public LatencyHistogram()
+    {
+        counts = new AtomicLongArray(BUCKETS);
+        total = new AtomicLong();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param   nanos   the duration, in nanoseconds; negative durations count as 0
+     */
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+        {
+            nanos = 0;
+        }
+        counts.incrementAndGet(bucket(nanos));
+        total.incrementAndGet();
+
+        long oldMax = max.get();
+        while (nanos > oldMax && !max.compareAndSet(oldMax, nanos))
+        {
+            oldMax = max.get();
+        }
+    }
+
+    /**
+     * Returns the number of durations recorded.
+     *
+     * @return  the number of durations
+     */
+    public long getCount()
+    {
+        return total.get();
+    }
+
+    /**
+     * Returns the longest duration recorded.
+     *
+     * @return  the longest duration, in nanoseconds, or 0 if none has been recorded
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * Estimates a percentile of the durations recorded.
+     *
+     * @param   percentile  the percentage of durations to be at or below the
+     *                      result; 0 <= percentile <= 100
+     * @return              the upper end of the bucket holding the percentile, in
+     *                      nanoseconds (no more than the longest duration), or 0 if
+     *                      none has been recorded
+     */
+    public long getPercentile(double percentile)
+    {
+        long count = total.get();
+        if (count == 0)
+        {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += counts.get(i);
+            if (seen >= rank)
+            {
+                return Math.min(lowerBound(i + 1) - 1, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Forgets every duration recorded. Durations recorded while the histogram is
+     * being reset may or may not be kept.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            counts.set(i, 0);
+        }
+        total.set(0);
+        max.set(0);
+    }
+
+    /**
+     * Returns the bucket of a duration.
+     *
+     * @param   nanos   the duration; nanos >= 0
+     * @return          the index of its bucket
+     */
+    private static int bucket(long nanos)
+    {
+        if (nanos < SUB_BUCKETS)
+        {
+            return (int) nanos;
+        }
+        int bits = 63 - Long.numberOfLeadingZeros(nanos);   //nanos is at least 2^bits
+        int fraction = (int) (nanos >>> (bits - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (bits - SUB_BITS + 1) * SUB_BUCKETS + fraction;
+    }
+
+    /**
+     * Returns the shortest duration in a bucket.
+     *
+     * @param   bucket  the index of the bucket; 0 <= bucket <= BUCKETS
+     * @return          the shortest duration counted in the bucket
+     */
+    private static long lowerBound(int bucket)
+    {
+        if (bucket < SUB_BUCKETS)
+        {
+            return bucket;
+        }
+        if (bucket == BUCKETS)
+        {
+            return Long.MAX_VALUE;
+        }
+        int bits = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long fraction = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + fraction) << (bits - SUB_BITS);
+    }
+}
@@ -0,0 +1,224 @@
+import java.net.*;
+import java.net.http.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A LoadTestClient opens many sessions on a GameServer and plays random legal
+ * moves in all of them at once, timing every move request from send to reply.
+ * The sessions are split between a number of workers; each worker plays one move
+ * in each of its sessions in turn, and starts a new session in place of any game
+ * which has been won or has no moves left, or whose move was refused. At the end it reports the median and
+ * 99th percentile move latency and the throughput.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class LoadTestClient
+{
+    /**
+     * Runs a load test.
+     *
+     * @param   args    optionally, the number of sessions (by default, 10000), the
+     *                  number of moves to play (by default, 200000), the number of
+     *                  workers (by default, 256), and the base URL of the server (by
+     *                  default, a GameServer started in this process)
+     * @throws  Exception if the server cannot be reached or the test is interrupted
+     */
+    public static void main(String[] args) throws Exception
+    {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int moves = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+        int workers = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+
+        GameServer server = null;
+        String base;
+        if (args.length > 3)
+        {
+            base = args[3];
+        }
+        else
+        {
+            server = new GameServer(0, 600000);
+            server.start();
+            base = "http://localhost:" + server.getPort();
+        }
+
+        LoadTestClient client = new LoadTestClient(base);
+        client.run(sessions, moves, Math.min(workers, sessions));
+        if (server != null)
+        {
+            System.out.println("sessions open on the server: " + server.getSessionCount());
+            server.stop();
+        }
+    }
+
+    private String base;
+    private HttpClient http;
+    private LatencyHistogram latency;
+    private AtomicLong movesLeft;
+    private AtomicLong gamesStarted;
+    private AtomicLong errors;
+
+    /**
+     * Constructor for objects of LoadTestClient class.
+     *
+     * @param   base    the base URL of the server, such as "http://localhost:8080"
+     */
+    public LoadTestClient(String base)
+    {
+        this.base = base;
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                                      .executor(GameServer.newThreadPerTaskExecutor()).build();
+        latency = new LatencyHistogram();
+        gamesStarted = new AtomicLong();
+        errors = new AtomicLong();
+    }
+
+    /**
+     * Opens the sessions, plays the moves, and prints the results.
+     *
+     * @param   sessions    the number of sessions to keep open
+     * @param   moves       the number of moves to play across all sessions
+     * @param   workers     the number of requests to have in flight at once
+     * @throws  Exception if the server cannot be reached or the test is interrupted
+     */
+    public void run(int sessions, long moves, int workers) throws Exception
+    {
+        movesLeft = new AtomicLong(moves);
+        ExecutorService pool = GameServer.newThreadPerTaskExecutor();
+        List<Future<?>> results = new ArrayList<Future<?>>();
+        long start = System.nanoTime();
+        for (int w = 0; w < workers; w++)
+        {
+            int first = (int) ((long) sessions * w / workers);
+            int last = (int) ((long) sessions * (w + 1) / workers);
+            long seed = w;
+            results.add(pool.submit(() -> work(last - first, seed)));
+        }
+        for (Future<?> result : results)
+        {
+            result.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        System.out.printf("%d sessions, %d moves, %d games, %d errors in %.1f s (%.0f moves/s)%n",
+                          sessions, latency.getCount(), gamesStarted.get(), errors.get(),
+                          seconds, latency.getCount() / seconds);
+        System.out.printf("move latency: p50 %.0f us, p99 %.0f us, max %.0f us%n",
+                          latency.getPercentile(50) / 1e3, latency.getPercentile(99) / 1e3,
+                          latency.getMax() / 1e3);
+    }
+
+    /**
+     * Plays moves in a worker's sessions until every move has been claimed, and
+     * then closes them.
+     *
+     * @param   count   the number of sessions the worker keeps open
+     * @param   seed    the seed of the worker's choice of moves
+     * @return          null
+     * @throws  Exception if the server cannot be reached or the worker is interrupted
+     */
+    private Void work(int count, long seed) throws Exception
+    {
+        Random random = new Random(seed);
+        long[] ids = new long[count];
+        int[][] legal = new int[count][];
+        for (int i = 0; i < count; i++)
+        {
+            open(ids, legal, i);
+        }
+
+        for (int i = 0; movesLeft.getAndDecrement() > 0; i = (i + 1) % count)
+        {
+            int move = legal[i][random.nextInt(legal[i].length)];
+            long sent = System.nanoTime();
+            String reply = send("/move?id=" + ids[i] + "&move=" + move);
+            latency.record(System.nanoTime() - sent);
+
+            if (reply == null)
+            {
+                //the session may be gone, so it is left for the server to evict
+                open(ids, legal, i);
+                continue;
+            }
+            legal[i] = legalMoves(reply);
+            if (reply.startsWith("1") || legal[i].length == 0)
+            {
+                send("/close?id=" + ids[i]);
+                open(ids, legal, i);
+            }
+        }
+
+        for (int i = 0; i < count; i++)
+        {
+            send("/close?id=" + ids[i]);
+        }
+        return null;
+    }
+
+    /**
+     * Starts a new session in one of a worker's places.
+     *
+     * @param   ids     the ids of the worker's sessions
+     * @param   legal   the legal moves of each of the worker's sessions
+     * @param   i       the place of the new session
+     * @throws  Exception if the server cannot be reached or refuses to start a session
+     */
+    private void open(long[] ids, int[][] legal, int i) throws Exception
+    {
+        String reply = send("/new");
+        if (reply == null)
+        {
+            throw new IllegalStateException("the server refused to start a session");
+        }
+        String[] lines = reply.split("\n");
+        ids[i] = Long.parseLong(lines[0].split(" ")[0]);
+        legal[i] = legalMoves(lines[1]);
+    }
+
+    /**
+     * Sends a request and returns the body of the reply; counts a reply other than
+     * 200 as an error.
+     *
+     * @param   path    the path and query of the request
+     * @return          the body of the reply, without its final newline, or null if
+     *                  the reply was not 200
+     * @throws  Exception if the server cannot be reached or the thread is interrupted
+     */
+    private String send(String path) throws Exception
+    {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path)).build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200)
+        {
+            errors.incrementAndGet();
+            return null;
+        }
+        if (path.startsWith("/new"))
+        {
+            gamesStarted.incrementAndGet();
+        }
+        return response.body().trim();
+    }
+
+    /**
+     * Reads the legal moves out of a state sent by the server.
+     *
+     * @param   state   whether the game is won, the number of moves made, and the
+     *                  legal moves, separated by spaces
+     * @return          the legal moves
+     */
+    private static int[] legalMoves(String state)
+    {
+        String[] fields = state.split(" ");
+        int[] moves = new int[Math.max(0, fields.length - 2)];
+        for (int i = 0; i < moves.length; i++)
+        {
+            moves[i] = Integer.parseInt(fields[i + 2]);
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Move encodes a move of a game of Solitaire in a single int, so that moves may be
+ * stored in primitive arrays. A move takes the top count cards of one Tableau pile
+ * and places them on another.
+ *
+ * Bits 0-3 hold the source pile and bits 4-7 hold the destination pile, both as
+ * Tableau pile indices, and bits 8-13 hold the number of cards moved. Bit 14 is set
+ * on a move which has been made if it turned up the card it uncovered. Drawing from
+ * the stock is a move from Tableau.STOCK to Tableau.WASTE, and recycling the waste
+ * is a move from Tableau.WASTE to Tableau.STOCK; once made, their count is the
+ * number of cards which changed piles (before then it may be 0).
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public final class Move
+{
+    private static final int PILE_MASK = 0x0F;
+    private static final int TO_SHIFT = 4;
+    private static final int COUNT_SHIFT = 8;
+    private static final int COUNT_MASK = 0x3F;
+    private static final int FLIP = 1 << 14;
+
+    private Move()
+    {
+    }
+
+    /**
+     * Encodes a move.
+     *
+     * @param   from    the pile to be removed from; 0 <= from < Tableau.NUM_PILES
+     * @param   to      the pile to be added to; 0 <= to < Tableau.NUM_PILES
+     * @param   count   the number of cards moved; 0 <= count <= 52
+     * @return          the packed move
+     */
+    public static int encode(int from, int to, int count)
+    {
+        return from | (to << TO_SHIFT) | (count << COUNT_SHIFT);
+    }
+
+    /**
+     * Returns the source pile of a move.
+     *
+     * @param   move    the packed move
+     * @return          the Tableau index of the pile removed from
+     */
+    public static int from(int move)
+    {
+        return move & PILE_MASK;
+    }
+
+    /**
+     * Returns the destination pile of a move.
+     *
+     * @param   move    the packed move
+     * @return          the Tableau index of the pile added to
+     */
+    public static int to(int move)
+    {
+        return (move >> TO_SHIFT) & PILE_MASK;
+    }
+
+    /**
+     * Returns the number of cards moved.
+     *
+     * @param   move    the packed move
+     * @return          the number of cards moved
+     */
+    public static int count(int move)
+    {
+        return (move >> COUNT_SHIFT) & COUNT_MASK;
+    }
+
+    /**
+     * Determines whether a move turned up the card it uncovered.
+     *
+     * @param   move    the packed move, as it was made
+     * @return          true if a face down card was turned up; otherwise,
+     *                  false
+     */
+    public static boolean isFlip(int move)
+    {
+        return (move & FLIP) != 0;
+    }
+
+    /**
+     * Marks a move as having turned up the card it uncovered.
+     *
+     * @param   move    the packed move
+     * @return          the same move, with its flip bit set
+     */
+    public static int withFlip(int move)
+    {
+        return move | FLIP;
+    }
+
+    /**
+     * Describes a move in words.
+     *
+     * @param   move    the packed move
+     * @return          a description such as "pile 2 -> foundation 0 (1)"
+     */
+    public static String toString(int move)
+    {
+        if (from(move) == Tableau.STOCK)
+        {
+            return "draw";
+        }
+        if (to(move) == Tableau.STOCK)
+        {
+            return "recycle waste";
+        }
+        return pileName(from(move)) + " -> " + pileName(to(move)) + " (" + count(move) + ")";
+    }
+
+    /**
+     * Names a Tableau pile.
+     *
+     * @param   pile    the Tableau index of the pile
+     * @return          a name such as "waste" or "pile 3"
+     */
+    private static String pileName(int pile)
+    {
+        if (pile == Tableau.STOCK)
+        {
+            return "stock";
+        }
+        if (pile == Tableau.WASTE)
+        {
+            return "waste";
+        }
+        if (pile < Tableau.PILE)
+        {
+            return "foundation " + (pile - Tableau.FOUNDATION);
+        }
+        return "pile " + (pile - Tableau.PILE);
+    }
+}
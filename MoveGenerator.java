@@ -0,0 +1,434 @@
+/**
+ * MoveGenerator lists the moves which can be made from a position, writing them
+ * as packed Moves into a caller-supplied int buffer. Nothing is allocated and the
+ * position is never changed to test a move: whether a run may move between piles
+ * is decided by reading the card at the base of the run in place.
+ *
+ * The top cards of the piles and of the foundations are gathered into one long
+ * each, with a bit per card (see PackedCard.bit), so that whether a card or a run
+ * can go anywhere is decided with a single AND against PackedCard.stackMask or
+ * PackedCard.followMask, and the piles are only looked at one by one when it can.
+ *
+ * No position has more than MAX_MOVES legal moves, so a buffer with that much
+ * room after the offset is always large enough.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public final class MoveGenerator
+{
+    public static final int MAX_MOVES = 80;
+
+    private MoveGenerator()
+    {
+    }
+
+    /**
+     * Lists every legal move from a position.
+     *
+     * @param   t       the layout of the position
+     * @param   buffer  the array the moves are written to
+     * @param   offset  the position in buffer of the first move
+     * @return          the number of moves written
+     */
+    public static int legalMoves(Tableau t, int[] buffer, int offset)
+    {
+        int n = offset;
+        long tops = pileTops(t);
+        long foundationTops = foundationTops(t);
+
+        if (!t.isEmpty(Tableau.STOCK))
+        {
+            buffer[n++] = Move.encode(Tableau.STOCK, Tableau.WASTE, 0);
+        }
+        else if (!t.isEmpty(Tableau.WASTE))
+        {
+            buffer[n++] = Move.encode(Tableau.WASTE, Tableau.STOCK, 0);
+        }
+
+        if (!t.isEmpty(Tableau.WASTE))
+        {
+            byte card = t.top(Tableau.WASTE);
+            n = addFoundationMoves(t, Tableau.WASTE, card, foundationTops, buffer, n);
+            n = addWasteMoves(t, card, tops, buffer, n);
+        }
+
+        for (int from = Tableau.PILE; from < Tableau.PILE + 7; from++)
+        {
+            int faceUp = t.faceUpCount(from);
+            if (faceUp == 0)
+            {
+                continue;
+            }
+            int size = t.size(from);
+            byte top = t.top(from);
+            n = addFoundationMoves(t, from, top, foundationTops, buffer, n);
+
+            boolean kingBase = PackedCard.rank(t.card(from, size - faceUp)) == 13;
+            long reach = runMask(t, from) & tops;
+            if (reach == 0 && !kingBase)
+            {
+                continue;
+            }
+            for (int to = Tableau.PILE; to < Tableau.PILE + 7; to++)
+            {
+                if (to == from)
+                {
+                    continue;
+                }
+                if (t.isEmpty(to))
+                {
+                    if (kingBase)
+                    {
+                        buffer[n++] = Move.encode(from, to, faceUp);
+                    }
+                    continue;
+                }
+
+                byte destination = t.top(to);
+                if ((reach & PackedCard.bit(destination)) == 0)
+                {
+                    continue;
+                }
+                int count = PackedCard.rank(destination) - PackedCard.rank(top);
+                if (count >= 1 && count <= faceUp
+                    && PackedCard.canStack(t.card(from, size - count), destination))
+                {
+                    buffer[n++] = Move.encode(from, to, count);
+                }
+            }
+        }
+
+        return n - offset;
+    }
+
+    /**
+     * Lists a move of a card to each foundation which may take it.
+     *
+     * @param   t               the layout of the position
+     * @param   from            the Tableau index of the pile whose top card is moved
+     * @param   card            the PackedCard at the top of that pile
+     * @param   foundationTops  the set of cards at the tops of the foundations
+     * @param   buffer          the array the moves are written to
+     * @param   n               the position in buffer of the next move
+     * @return                  the position in buffer after the moves written
+     */
+    private static int addFoundationMoves(Tableau t, int from, byte card, long foundationTops,
+                                          int[] buffer, int n)
+    {
+        boolean isAce = PackedCard.rank(card) == 1;
+        if (!isAce && (PackedCard.followMask(card) & foundationTops) == 0)
+        {
+            return n;
+        }
+        for (int f = Tableau.FOUNDATION; f < Tableau.PILE; f++)
+        {
+            if (t.isEmpty(f) ? isAce : PackedCard.canFollow(card, t.top(f)))
+            {
+                buffer[n++] = Move.encode(from, f, 1);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Lists a move of the top card of the waste to each pile which may take it.
+     *
+     * @param   t       the layout of the position
+     * @param   card    the PackedCard at the top of the waste
+     * @param   tops    the set of cards at the tops of the piles
+     * @param   buffer  the array the moves are written to
+     * @param   n       the position in buffer of the next move
+     * @return          the position in buffer after the moves written
+     */
+    private static int addWasteMoves(Tableau t, byte card, long tops, int[] buffer, int n)
+    {
+        boolean isKing = PackedCard.rank(card) == 13;
+        long reach = PackedCard.stackMask(card) & tops;
+        if (reach == 0 && !isKing)
+        {
+            return n;
+        }
+        for (int to = Tableau.PILE; to < Tableau.PILE + 7; to++)
+        {
+            if (t.isEmpty(to) ? isKing : (reach & PackedCard.bit(t.top(to))) != 0)
+            {
+                buffer[n++] = Move.encode(Tableau.WASTE, to, 1);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns the set of cards at the tops of the non-empty piles.
+     *
+     * @param   t   the layout of the position
+     * @return      a bit for each top card
+     */
+    private static long pileTops(Tableau t)
+    {
+        long tops = 0;
+        for (int p = Tableau.PILE; p < Tableau.PILE + 7; p++)
+        {
+            if (!t.isEmpty(p))
+            {
+                tops |= PackedCard.bit(t.top(p));
+            }
+        }
+        return tops;
+    }
+
+    /**
+     * Returns the set of cards at the tops of the non-empty foundations.
+     *
+     * @param   t   the layout of the position
+     * @return      a bit for each top card
+     */
+    private static long foundationTops(Tableau t)
+    {
+        long tops = 0;
+        for (int f = Tableau.FOUNDATION; f < Tableau.PILE; f++)
+        {
+            if (!t.isEmpty(f))
+            {
+                tops |= PackedCard.bit(t.top(f));
+            }
+        }
+        return tops;
+    }
+
+    /**
+     * Returns the set of cards which some card of a pile's face up run may be
+     * placed on.
+     *
+     * @param   t       the layout of the position
+     * @param   pile    the Tableau index of the pile
+     * @return          the union of the stack masks of the face up cards
+     */
+    private static long runMask(Tableau t, int pile)
+    {
+        long mask = 0;
+        int size = t.size(pile);
+        for (int j = size - t.faceUpCount(pile); j < size; j++)
+        {
+            mask |= PackedCard.stackMask(t.card(pile, j));
+        }
+        return mask;
+    }
+
+    /**
+     * Lists the legal moves worth trying from a position, most promising first:
+     * moves to the foundations, then moves between piles, then moves from the
+     * waste, then the stock. A run is only moved between piles if the whole run
+     * moves (turning up or emptying its pile) or if the card it uncovers can then
+     * go to a foundation; a King is never moved from one empty pile to another;
+     * and an Ace only goes to the first empty foundation.
+     *
+     * @param   t       the layout of the position
+     * @param   buffer  the array the moves are written to
+     * @param   offset  the position in buffer of the first move
+     * @return          the number of moves written
+     */
+    public static int searchMoves(Tableau t, int[] buffer, int offset)
+    {
+        int n = offset;
+        long tops = pileTops(t);
+
+        //to the foundations
+        if (!t.isEmpty(Tableau.WASTE))
+        {
+            int f = foundationFor(t, t.top(Tableau.WASTE));
+            if (f >= 0)
+            {
+                buffer[n++] = Move.encode(Tableau.WASTE, f, 1);
+            }
+        }
+        for (int src = Tableau.PILE; src < Tableau.PILE + 7; src++)
+        {
+            if (!t.isEmpty(src))
+            {
+                int f = foundationFor(t, t.top(src));
+                if (f >= 0)
+                {
+                    buffer[n++] = Move.encode(src, f, 1);
+                }
+            }
+        }
+
+        //between piles
+        for (int from = Tableau.PILE; from < Tableau.PILE + 7; from++)
+        {
+            int faceUp = t.faceUpCount(from);
+            if (faceUp == 0)
+            {
+                continue;
+            }
+            int size = t.size(from);
+            byte top = t.top(from);
+            boolean kingBase = t.faceDownCount(from) > 0
+                               && PackedCard.rank(t.card(from, size - faceUp)) == 13;
+            long reach = runMask(t, from) & tops;
+            if (reach == 0 && !kingBase)
+            {
+                continue;
+            }
+            for (int to = Tableau.PILE; to < Tableau.PILE + 7; to++)
+            {
+                if (to == from)
+                {
+                    continue;
+                }
+                if (t.isEmpty(to))
+                {
+                    if (kingBase)
+                    {
+                        buffer[n++] = Move.encode(from, to, faceUp);
+                    }
+                    continue;
+                }
+
+                byte destination = t.top(to);
+                if ((reach & PackedCard.bit(destination)) == 0)
+                {
+                    continue;
+                }
+                int count = PackedCard.rank(destination) - PackedCard.rank(top);
+                if (count < 1 || count > faceUp
+                    || !PackedCard.canStack(t.card(from, size - count), destination))
+                {
+                    continue;
+                }
+                if (count == faceUp || foundationFor(t, t.card(from, size - count - 1)) >= 0)
+                {
+                    buffer[n++] = Move.encode(from, to, count);
+                }
+            }
+        }
+
+        //from the waste
+        if (!t.isEmpty(Tableau.WASTE))
+        {
+            n = addWasteMoves(t, t.top(Tableau.WASTE), tops, buffer, n);
+        }
+
+        //the stock
+        if (!t.isEmpty(Tableau.STOCK))
+        {
+            buffer[n++] = Move.encode(Tableau.STOCK, Tableau.WASTE, 0);
+        }
+        else if (!t.isEmpty(Tableau.WASTE))
+        {
+            buffer[n++] = Move.encode(Tableau.WASTE, Tableau.STOCK, 0);
+        }
+
+        return n - offset;
+    }
+
+    /**
+     * Finds the first foundation a card may be added to.
+     *
+     * @param   t       the layout of the position
+     * @param   card    the PackedCard of interest
+     * @return          the Tableau index of the foundation, or -1 if the card
+     *                  cannot go to any foundation
+     */
+    public static int foundationFor(Tableau t, byte card)
+    {
+        boolean isAce = PackedCard.rank(card) == 1;
+        for (int f = Tableau.FOUNDATION; f < Tableau.PILE; f++)
+        {
+            if (t.isEmpty(f) ? isAce : PackedCard.canFollow(card, t.top(f)))
+            {
+                return f;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds a move of a card from the top of a pile to a foundation which can never
+     * make the game harder to win, so that it may be made without trying anything
+     * else first. Such a card is an Ace or a 2, or a card both of whose cards of the
+     * opposite color and one rank lower are already on the foundations, so that no
+     * card could ever need to be placed on it. Moves from the waste are never safe
+     * in this sense, since taking a card from the waste changes which cards later
+     * draws bring up.
+     *
+     * @param   t       the layout of the position
+     * @return          the move, encoded by Move, or -1 if there is no safe move
+     */
+    public static int safeMove(Tableau t)
+    {
+        for (int from = Tableau.PILE; from < Tableau.PILE + 7; from++)
+        {
+            if (t.faceUpCount(from) == 0)
+            {
+                continue;
+            }
+            byte card = t.top(from);
+            int f = foundationFor(t, card);
+            if (f >= 0 && isSafe(t, card))
+            {
+                return Move.encode(from, f, 1);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Determines whether no card could ever need to be placed on a card, because it
+     * is an Ace or a 2, or because both cards of the opposite color and one rank
+     * lower are on the foundations.
+     *
+     * @param   t       the layout of the position
+     * @param   card    the PackedCard of interest
+     * @return          true if the card may safely go to a foundation; otherwise,
+     *                  false
+     */
+    private static boolean isSafe(Tableau t, byte card)
+    {
+        int rank = PackedCard.rank(card);
+        if (rank <= 2)
+        {
+            return true;
+        }
+        int played = 0;   //foundations of the opposite color holding the card one rank lower
+        for (int f = Tableau.FOUNDATION; f < Tableau.PILE; f++)
+        {
+            if (!t.isEmpty(f) && PackedCard.isRed(t.top(f)) != PackedCard.isRed(card)
+                && PackedCard.rank(t.top(f)) >= rank - 1)
+            {
+                played++;
+            }
+        }
+        return played == 2;
+    }
+
+    /**
+     * Determines whether a card could be played from the waste, onto a foundation
+     * or a pile, if it were at the top of the waste.
+     *
+     * @param   t       the layout of the position
+     * @param   card    the PackedCard of interest
+     * @return          true if the card could be played; otherwise,
+     *                  false
+     */
+    public static boolean canPlay(Tableau t, byte card)
+    {
+        if (foundationFor(t, card) >= 0 || (PackedCard.stackMask(card) & pileTops(t)) != 0)
+        {
+            return true;
+        }
+        if (PackedCard.rank(card) == 13)
+        {
+            for (int p = Tableau.PILE; p < Tableau.PILE + 7; p++)
+            {
+                if (t.isEmpty(p))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
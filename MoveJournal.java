@@ -0,0 +1,135 @@
+/**
+ * A MoveJournal records the moves made in a game, as packed Moves in a growable
+ * int array, so that they may be undone and redone. Undoing a move only steps back
+ * through the array; the moves undone stay in the array to be redone until a new
+ * move is recorded in their place.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class MoveJournal
+{
+    private int[] moves;
+    private int size;    //the number of moves currently made
+    private int limit;   //the number of moves which may be redone up to
+
+    /**
+     * Constructor for objects of MoveJournal class.
+     */
+    public MoveJournal()
+    {
+        moves = new int[64];
+    }
+
+    /**
+     * Replaces the contents of this journal with those of another journal.
+     *
+     * @param   other   the journal to be copied
+     */
+    public void copyFrom(MoveJournal other)
+    {
+        if (moves.length < other.limit)
+        {
+            moves = new int[other.moves.length];
+        }
+        System.arraycopy(other.moves, 0, moves, 0, other.limit);
+        size = other.size;
+        limit = other.limit;
+    }
+
+    /**
+     * Forgets every move, as at the start of a game.
+     */
+    public void clear()
+    {
+        size = 0;
+        limit = 0;
+    }
+
+    /**
+     * Records a move which has just been made, discarding any moves which could
+     * have been redone.
+     *
+     * @param   move    the packed move, as it was made
+     */
+    public void record(int move)
+    {
+        if (size == moves.length)
+        {
+            int[] larger = new int[moves.length * 2];
+            System.arraycopy(moves, 0, larger, 0, size);
+            moves = larger;
+        }
+        moves[size] = move;
+        size++;
+        limit = size;
+    }
+
+    /**
+     * Determines whether there is a move to be undone.
+     *
+     * @return  true if at least one move has been made; otherwise,
+     *          false
+     */
+    public boolean canUndo()
+    {
+        return size > 0;
+    }
+
+    /**
+     * Determines whether there is a move to be redone.
+     *
+     * @return  true if a move has been undone and no other move made since; otherwise,
+     *          false
+     */
+    public boolean canRedo()
+    {
+        return size < limit;
+    }
+
+    /**
+     * Steps back over the last move made.
+     *
+     * @precondition    canUndo()
+     * @return          the packed move to be undone
+     */
+    public int undo()
+    {
+        size--;
+        return moves[size];
+    }
+
+    /**
+     * Steps forward over the last move undone.
+     *
+     * @precondition    canRedo()
+     * @return          the packed move to be redone
+     */
+    public int redo()
+    {
+        size++;
+        return moves[size - 1];
+    }
+
+    /**
+     * Returns the number of moves currently made.
+     *
+     * @return  the number of moves
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns one of the moves currently made.
+     *
+     * @param   index   the position of the move, where 0 is the first move of the
+     *                  game; 0 <= index < size()
+     * @return          the packed move, as it was made
+     */
+    public int get(int index)
+    {
+        return moves[index];
+    }
+}
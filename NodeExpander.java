@@ -0,0 +1,112 @@
+/**
+ * A NodeExpander carries out the step a solver takes at each position of its search
+ * tree, so that Solver and ParallelSolver prune the same tree. A position whose
+ * remaining cards are all face up in the piles is completed at once rather than
+ * searched. Otherwise the moves to be tried are the safe move alone, if
+ * MoveGenerator.safeMove finds one, or else the moves listed by
+ * MoveGenerator.searchMoves; and a position where nothing can be done but draw,
+ * and none of the cards the draws can ever bring up can be played, has no moves
+ * to be tried at all, since cycling through the stock would only lead back to it.
+ *
+ * A NodeExpander keeps the scratch arrays of the stall check, so each searching
+ * thread needs its own.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class NodeExpander
+{
+    private int[] stallMoves;
+    private byte[] reachable;
+
+    /**
+     * Constructor for objects of NodeExpander class.
+     */
+    public NodeExpander()
+    {
+        stallMoves = new int[MoveGenerator.MAX_MOVES];
+        reachable = new byte[52];
+    }
+
+    /**
+     * Completes a game whose remaining cards are all face up in the piles, by
+     * sending every card up to the foundations, and records the moves made.
+     *
+     * @param   game    the game to be completed; unchanged if it cannot be
+     * @param   path    the array the moves made are written to, each encoded by Move;
+     *                  must have room for 52 moves from offset
+     * @param   offset  the position in path of the first move
+     * @return          the number of moves made, or -1 if the game cannot be
+     *                  completed this way
+     */
+    public int complete(Solitaire game, int[] path, int offset)
+    {
+        if (!game.canAutoComplete())
+        {
+            return -1;
+        }
+        int count = game.autoComplete();
+        int made = game.getMoveCount();
+        for (int i = 0; i < count; i++)
+        {
+            int move = game.getMove(made - count + i);
+            path[offset + i] = Move.encode(Move.from(move), Move.to(move), Move.count(move));
+        }
+        return count;
+    }
+
+    /**
+     * Lists the moves to be tried from a position: the safe move alone, if there is
+     * one; none, if the position is stalled; or else the moves listed by
+     * MoveGenerator.searchMoves.
+     *
+     * @param   t       the layout of the position
+     * @param   buffer  the array the moves are written to
+     * @param   offset  the position in buffer of the first move
+     * @return          the number of moves written
+     */
+    public int candidateMoves(Tableau t, int[] buffer, int offset)
+    {
+        int forced = MoveGenerator.safeMove(t);
+        if (forced != -1)
+        {
+            buffer[offset] = forced;
+            return 1;
+        }
+        int count = MoveGenerator.searchMoves(t, buffer, offset);
+        if (count == 1 && isStalled(t))
+        {
+            return 0;
+        }
+        return count;
+    }
+
+    /**
+     * Determines whether a position is stuck: no move can be made but drawing from
+     * the stock or recycling the waste, and none of the cards which drawing can
+     * bring to the top of the waste could be played.
+     *
+     * @param   t   the layout of the position
+     * @return      true if the position can never change again except by drawing;
+     *              otherwise,
+     *              false
+     */
+    private boolean isStalled(Tableau t)
+    {
+        int legal = MoveGenerator.legalMoves(t, stallMoves, 0);
+        if (legal > 1 || (legal == 1 && Move.from(stallMoves[0]) != Tableau.STOCK
+                                     && Move.to(stallMoves[0]) != Tableau.STOCK))
+        {
+            return false;
+        }
+        int count = t.reachableWaste(Solitaire.DRAW_SIZE, reachable);
+        for (int i = 0; i < count; i++)
+        {
+            if (MoveGenerator.canPlay(t, reachable[i]))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
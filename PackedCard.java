@@ -0,0 +1,240 @@
+/**
+ * PackedCard encodes a playing card in a single byte, so that the rules of
+ * the game can be checked with bit masks instead of String comparisons.
+ *
+ * Bits 0-3 hold the rank (1 ≤ rank ≤ 13), bits 4-5 hold the suit (0 for clubs,
+ * 1 for diamonds, 2 for hearts, 3 for spades), bit 6 is set if the card is red,
+ * and bit 7 is set if the card is face up.
+ *
+ * Bits 0-5 alone tell the 52 cards apart, so they serve as a key from 0 to 63,
+ * and a set of cards fits in one long with a bit per key. The cards each card may
+ * be stacked on, and may follow on a foundation, are precomputed as such sets, so
+ * that a card can be tested against the tops of every pile with a single AND.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public final class PackedCard
+{
+    public static final int RANK_MASK = 0x0F;
+    public static final int SUIT_MASK = 0x30;
+    public static final int SUIT_SHIFT = 4;
+    public static final int RED = 0x40;
+    public static final int FACE_UP = 0x80;
+    public static final int KEY_MASK = 0x3F;
+
+    private static final long[] STACK_MASKS = new long[KEY_MASK + 1];
+    private static final long[] FOLLOW_MASKS = new long[KEY_MASK + 1];
+
+    /**
+     * The single character names of the suits, indexed by suit.
+     */
+    public static final String[] SUIT_NAMES = {"c", "d", "h", "s"};
+
+    static
+    {
+        for (int i = 0; i < 52; i++)
+        {
+            byte card = encode(i % 13 + 1, i / 13, true);
+            for (int j = 0; j < 52; j++)
+            {
+                byte top = encode(j % 13 + 1, j / 13, true);
+                if (canStack(card, top))
+                {
+                    STACK_MASKS[card & KEY_MASK] |= bit(top);
+                }
+                if (canFollow(card, top))
+                {
+                    FOLLOW_MASKS[card & KEY_MASK] |= bit(top);
+                }
+            }
+        }
+    }
+
+    private PackedCard()
+    {
+    }
+
+    /**
+     * Encodes a card.
+     *
+     * @param   rank        the card's rank, where 1 ≤ rank ≤ 13
+     * @param   suit        the card's suit, where 0 ≤ suit ≤ 3
+     * @param   isFaceUp    true if the card is turned face up
+     * @return              the packed card
+     */
+    public static byte encode(int rank, int suit, boolean isFaceUp)
+    {
+        int code = rank | (suit << SUIT_SHIFT);
+        if (suit == 1 || suit == 2)
+        {
+            code |= RED;
+        }
+        if (isFaceUp)
+        {
+            code |= FACE_UP;
+        }
+        return (byte) code;
+    }
+
+    /**
+     * Converts a single character suit name into a suit.
+     *
+     * @param   suit    "c" for clubs, "d" for diamonds, "h" for hearts, "s" for spades
+     * @return          the suit, where 0 ≤ suit ≤ 3
+     */
+    public static int suitOf(String suit)
+    {
+        for (int i = 0; i < SUIT_NAMES.length; i++)
+        {
+            if (SUIT_NAMES[i].equals(suit))
+            {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("bad suit:  " + suit);
+    }
+
+    /**
+     * Returns the rank of a packed card.
+     *
+     * @param   code    the packed card
+     * @return          the card's rank, where 1 ≤ rank ≤ 13
+     */
+    public static int rank(byte code)
+    {
+        return code & RANK_MASK;
+    }
+
+    /**
+     * Returns the suit of a packed card.
+     *
+     * @param   code    the packed card
+     * @return          the card's suit, where 0 ≤ suit ≤ 3
+     */
+    public static int suit(byte code)
+    {
+        return (code & SUIT_MASK) >> SUIT_SHIFT;
+    }
+
+    /**
+     * Returns the position of a packed card in a sorted deck, ignoring whether
+     * the card is face up.
+     *
+     * @param   code    the packed card
+     * @return          13 * suit + rank - 1, where 0 ≤ index ≤ 51
+     */
+    public static int index(byte code)
+    {
+        return suit(code) * 13 + rank(code) - 1;
+    }
+
+    /**
+     * Determines whether a packed card is red.
+     *
+     * @param   code    the packed card
+     * @return          true if the card is a heart or a diamond; otherwise,
+     *                  false
+     */
+    public static boolean isRed(byte code)
+    {
+        return (code & RED) != 0;
+    }
+
+    /**
+     * Determines whether a packed card is face up.
+     *
+     * @param   code    the packed card
+     * @return          true if the card is turned face up; otherwise,
+     *                  false
+     */
+    public static boolean isFaceUp(byte code)
+    {
+        return (code & FACE_UP) != 0;
+    }
+
+    /**
+     * Returns a packed card turned face up.
+     *
+     * @param   code    the packed card
+     * @return          the same card, face up
+     */
+    public static byte turnUp(byte code)
+    {
+        return (byte) (code | FACE_UP);
+    }
+
+    /**
+     * Returns a packed card turned face down.
+     *
+     * @param   code    the packed card
+     * @return          the same card, face down
+     */
+    public static byte turnDown(byte code)
+    {
+        return (byte) (code & ~FACE_UP);
+    }
+
+    /**
+     * Returns the bit standing for a card in a set of cards held in a long.
+     *
+     * @param   code    the packed card
+     * @return          the card's bit, ignoring whether it is face up
+     */
+    public static long bit(byte code)
+    {
+        return 1L << (code & KEY_MASK);
+    }
+
+    /**
+     * Returns the set of cards a card may be placed on top of in a pile.
+     *
+     * @param   card    the packed card to be placed
+     * @return          the bits of the two cards of the next rank up and the
+     *                  opposite color (none for a King)
+     */
+    public static long stackMask(byte card)
+    {
+        return STACK_MASKS[card & KEY_MASK];
+    }
+
+    /**
+     * Returns the set of cards a card may be placed on top of in a foundation.
+     *
+     * @param   card    the packed card to be placed
+     * @return          the bit of the card of the same suit and the rank below
+     *                  (none for an Ace)
+     */
+    public static long followMask(byte card)
+    {
+        return FOLLOW_MASKS[card & KEY_MASK];
+    }
+
+    /**
+     * Determines whether a card may be placed on top of another card in a pile;
+     * that is, whether its rank is one less and its color is opposite.
+     *
+     * @param   card    the packed card to be placed
+     * @param   top     the packed card at the top of the pile
+     * @return          true if card may be placed on top; otherwise,
+     *                  false
+     */
+    public static boolean canStack(byte card, byte top)
+    {
+        return (card & RANK_MASK) == (top & RANK_MASK) - 1 && ((card ^ top) & RED) != 0;
+    }
+
+    /**
+     * Determines whether a card may be placed on top of another card in a
+     * foundation; that is, whether it has the same suit and the subsequent rank.
+     *
+     * @param   card    the packed card to be placed
+     * @param   top     the packed card at the top of the foundation
+     * @return          true if card may be placed on top; otherwise,
+     *                  false
+     */
+    public static boolean canFollow(byte card, byte top)
+    {
+        return ((card ^ top) & SUIT_MASK) == 0 && (card & RANK_MASK) == (top & RANK_MASK) + 1;
+    }
+}
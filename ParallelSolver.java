@@ -0,0 +1,364 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A ParallelSolver searches for a win like a Solver, but spreads the search over
+ * the threads of a ForkJoinPool. The first few moves of the search tree are split
+ * into one task per move; below that depth each task searches its subtree
+ * depth-first on its own thread, making and undoing moves on its own copy of the
+ * game and pruning the same tree as Solver, through a NodeExpander of its own:
+ * positions whose cards are all face up are completed at once, only the safe move
+ * is tried where there is one, and positions stalled at the stock are given up.
+ * All of the tasks share one ConcurrentTranspositionTable, so no position is
+ * searched by two threads, and as soon as one task finds a win the others stop.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class ParallelSolver
+{
+    private static final int SPLIT_DEPTH = 3;   //moves made before tasks stop splitting
+    private static final int MAX_DEPTH = 1000;
+    private static final int NODE_BATCH = 256;  //positions counted locally between updates
+
+    /**
+     * Solves a fixed set of deals with a Solver and with a ParallelSolver and
+     * reports the speedup.
+     *
+     * @param   args    optionally, the first seed and the number of deals
+     *                  (by default, seeds 1 to 20)
+     */
+    public static void main(String[] args)
+    {
+        long firstSeed = 1;
+        int count = 20;
+        if (args.length >= 2)
+        {
+            firstSeed = Long.parseLong(args[0]);
+            count = Integer.parseInt(args[1]);
+        }
+
+        Solver solver = new Solver(22, 5000000, 10000);
+        ParallelSolver parallelSolver = new ParallelSolver(22, 5000000, 10000,
+            Runtime.getRuntime().availableProcessors());
+
+        long serialTime = 0;
+        long parallelTime = 0;
+        for (long seed = firstSeed; seed < firstSeed + count; seed++)
+        {
+            long start = System.nanoTime();
+            int serial = solver.solve(new Solitaire(seed));
+            long middle = System.nanoTime();
+            int parallel = parallelSolver.solve(new Solitaire(seed));
+            long end = System.nanoTime();
+
+            serialTime += middle - start;
+            parallelTime += end - middle;
+            System.out.printf("deal %d: serial %d in %.1f ms, parallel %d in %.1f ms%n",
+                              seed, serial, (middle - start) / 1e6, parallel, (end - middle) / 1e6);
+        }
+        System.out.printf("speedup on %d threads: %.2fx%n",
+                          Runtime.getRuntime().availableProcessors(),
+                          (double) serialTime / parallelTime);
+        parallelSolver.shutdown();
+    }
+
+    private ForkJoinPool pool;
+    private ConcurrentTranspositionTable table;
+    private long nodeLimit;
+    private long timeLimit;
+    private ThreadLocal<Scratch> scratch;
+
+    private AtomicReference<int[]> solution;
+    private AtomicLong nodes;
+    private volatile boolean stop;
+    private volatile boolean aborted;
+    private volatile boolean cutOff;
+    private long deadline;
+
+    /**
+     * Constructor for objects of ParallelSolver class.
+     *
+     * @param   tableBits   the base 2 logarithm of the number of positions the
+     *                      shared transposition table holds
+     * @param   nodeLimit   the greatest number of positions one solve may visit
+     * @param   timeLimit   the greatest number of milliseconds one solve may take
+     * @param   threads     the number of threads to search with
+     */
+    public ParallelSolver(int tableBits, long nodeLimit, long timeLimit, int threads)
+    {
+        pool = new ForkJoinPool(threads);
+        table = new ConcurrentTranspositionTable(tableBits);
+        this.nodeLimit = nodeLimit;
+        this.timeLimit = timeLimit;
+        scratch = ThreadLocal.withInitial(Scratch::new);
+        solution = new AtomicReference<int[]>();
+        nodes = new AtomicLong();
+    }
+
+    /**
+     * Searches for a way to win a game from its current position. The game
+     * itself is not changed. Only one solve may run at a time; every task it
+     * started has finished by the time it returns.
+     *
+     * @param   game    the game to be solved
+     * @return          Solver.WON if the game can be won, Solver.LOST if none of
+     *                  the moves the solver tries lead to a win, or Solver.UNKNOWN
+     *                  if the search reached its node or time limit first
+     */
+    public int solve(Solitaire game)
+    {
+        table.clear();
+        solution.set(null);
+        nodes.set(0);
+        stop = false;
+        aborted = false;
+        cutOff = false;
+        deadline = System.nanoTime() + timeLimit * 1000000L;
+
+        pool.invoke(new SearchTask(new Solitaire(game), new int[0]));
+        if (solution.get() != null)
+        {
+            return Solver.WON;
+        }
+        if (aborted || cutOff)
+        {
+            return Solver.UNKNOWN;
+        }
+        return Solver.LOST;
+    }
+
+    /**
+     * Returns the winning moves found by the last solve.
+     *
+     * @return  the moves, in the order they are to be made, each encoded by Move;
+     *          empty if the last solve did not return Solver.WON
+     */
+    public int[] getSolution()
+    {
+        int[] moves = solution.get();
+        if (moves == null)
+        {
+            return new int[0];
+        }
+        return moves.clone();
+    }
+
+    /**
+     * Returns the number of positions visited by the last solve.
+     *
+     * @return  the number of positions searched
+     */
+    public long getNodesSearched()
+    {
+        return nodes.get();
+    }
+
+    /**
+     * Stops the threads of the pool. The solver may not be used afterwards.
+     */
+    public void shutdown()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * Records a win, unless another task has already recorded one, and tells every
+     * task to stop.
+     *
+     * @param   prefix  the moves made before the task's subtree
+     * @param   path    the moves made within the subtree
+     * @param   length  the number of moves in path
+     */
+    private void won(int[] prefix, int[] path, int length)
+    {
+        int[] moves = Arrays.copyOf(prefix, prefix.length + length);
+        System.arraycopy(path, 0, moves, prefix.length, length);
+        solution.compareAndSet(null, moves);
+        stop = true;
+    }
+
+    /**
+     * Adds a position to the table and counts it, and checks the limits.
+     *
+     * @param   state   the position reached
+     * @param   local   the scratch space of the current thread, which holds its
+     *                  count of positions not yet added to the shared count
+     * @return          true if the position should be searched; otherwise (it has
+     *                  been searched before, or the search is stopping),
+     *                  false
+     */
+    private boolean visit(Solitaire state, Scratch local)
+    {
+        if (stop || !table.add(Zobrist.canonicalHash(state.getTableau())))
+        {
+            return false;
+        }
+
+        local.nodes++;
+        if (local.nodes == NODE_BATCH)
+        {
+            local.nodes = 0;
+            if (nodes.addAndGet(NODE_BATCH) > nodeLimit || System.nanoTime() > deadline)
+            {
+                aborted = true;
+                stop = true;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The arrays one thread uses to search a subtree depth-first, kept between tasks
+     * so that searching allocates nothing once the thread has warmed up.
+     */
+    private static class Scratch
+    {
+        private int[] moves = new int[MAX_DEPTH * MoveGenerator.MAX_MOVES];
+        private int[] path = new int[MAX_DEPTH + 52];   //room for an auto-completion
+        private NodeExpander expander = new NodeExpander();
+        private long nodes;
+    }
+
+    /**
+     * A SearchTask searches the subtree below one position. Near the root it forks a
+     * task for each of its moves; deeper down it searches on its own.
+     */
+    private class SearchTask extends RecursiveTask<Boolean>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private Solitaire state;
+        private int[] prefix;
+
+        /**
+         * Constructor for objects of SearchTask class.
+         *
+         * @param   state   the position to be searched from; owned by the task
+         * @param   prefix  the moves which reach the position from the root
+         */
+        SearchTask(Solitaire state, int[] prefix)
+        {
+            this.state = state;
+            this.prefix = prefix;
+        }
+
+        /**
+         * Searches the subtree.
+         *
+         * @return  true if a win was found in the subtree; otherwise (no win was
+         *          found, or another task found one first and this one stopped),
+         *          false
+         */
+        protected Boolean compute()
+        {
+            if (prefix.length >= SPLIT_DEPTH)
+            {
+                Scratch local = scratch.get();
+                boolean won = search(local, 0);
+                nodes.addAndGet(local.nodes);
+                local.nodes = 0;
+                return won;
+            }
+
+            Scratch local = scratch.get();
+            if (state.hasWon())
+            {
+                won(prefix, prefix, 0);
+                return true;
+            }
+            int completed = local.expander.complete(state, local.path, 0);
+            if (completed != -1)
+            {
+                won(prefix, local.path, completed);
+                return true;
+            }
+            if (!visit(state, local))
+            {
+                return false;
+            }
+
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int count = local.expander.candidateMoves(state.getTableau(), moves, 0);
+            List<SearchTask> tasks = new ArrayList<SearchTask>();
+            for (int i = 0; i < count; i++)
+            {
+                Solitaire child = new Solitaire(state);
+                if (child.makeMove(moves[i]))
+                {
+                    int[] path = Arrays.copyOf(prefix, prefix.length + 1);
+                    path[prefix.length] = moves[i];
+                    tasks.add(new SearchTask(child, path));
+                }
+            }
+
+            for (int i = tasks.size() - 1; i > 0; i--)
+            {
+                tasks.get(i).fork();
+            }
+            //every task is joined, even once a win is found, so that none is still
+            //running when solve returns; after a win they see stop and return at once
+            boolean won = !tasks.isEmpty() && tasks.get(0).compute();
+            for (int i = 1; i < tasks.size(); i++)
+            {
+                if (tasks.get(i).join())
+                {
+                    won = true;
+                }
+            }
+            return won;
+        }
+
+        /**
+         * Searches depth-first below the current position of the task's game,
+         * leaving the game in that position on return unless a win was found.
+         *
+         * @param   local   the scratch space of the current thread
+         * @param   depth   the number of moves made since the task's position
+         * @return          true if a win was found; otherwise,
+         *                  false
+         */
+        private boolean search(Scratch local, int depth)
+        {
+            if (state.hasWon())
+            {
+                won(prefix, local.path, depth);
+                return true;
+            }
+            int completed = local.expander.complete(state, local.path, depth);
+            if (completed != -1)
+            {
+                won(prefix, local.path, depth + completed);
+                return true;
+            }
+            if (!visit(state, local))
+            {
+                return false;
+            }
+            if (prefix.length + depth == MAX_DEPTH)
+            {
+                cutOff = true;
+                return false;
+            }
+
+            int first = depth * MoveGenerator.MAX_MOVES;
+            int last = first + local.expander.candidateMoves(state.getTableau(), local.moves,
+                                                             first);
+            for (int i = first; i < last && !stop; i++)
+            {
+                if (state.makeMove(local.moves[i]))
+                {
+                    local.path[depth] = local.moves[i];
+                    if (search(local, depth + 1))
+                    {
+                        return true;
+                    }
+                    state.undo();
+                }
+            }
+            return false;
+        }
+    }
+}
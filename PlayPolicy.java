@@ -0,0 +1,27 @@
+/**
+ * A PlayPolicy chooses the moves of an automated player. BatchSimulator asks a
+ * policy for one move at a time until the game is won or the policy gives up.
+ *
+ * A policy may keep state between moves, so each thread of a simulation uses its
+ * own policy.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public interface PlayPolicy
+{
+    /**
+     * Called before the first move of each game.
+     *
+     * @param   game    the game about to be played
+     */
+    void newGame(Solitaire game);
+
+    /**
+     * Chooses the next move.
+     *
+     * @param   game    the game being played
+     * @return          the move to be made, encoded by Move, or -1 to give up
+     */
+    int nextMove(Solitaire game);
+}
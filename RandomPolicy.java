@@ -0,0 +1,41 @@
+import java.util.*;
+
+/**
+ * A RandomPolicy plays a move chosen uniformly at random from the moves listed by
+ * MoveGenerator.searchMoves. The choices are seeded by the deal, so a game played twice
+ * with a RandomPolicy is played the same way both times.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class RandomPolicy implements PlayPolicy
+{
+    private int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private Random random = new Random();
+
+    /**
+     * Called before the first move of each game.
+     *
+     * @param   game    the game about to be played
+     */
+    public void newGame(Solitaire game)
+    {
+        random.setSeed(game.getSeed());
+    }
+
+    /**
+     * Chooses the next move.
+     *
+     * @param   game    the game being played
+     * @return          the move to be made, encoded by Move, or -1 to give up
+     */
+    public int nextMove(Solitaire game)
+    {
+        int count = MoveGenerator.searchMoves(game.getTableau(), moves, 0);
+        if (count == 0)
+        {
+            return -1;
+        }
+        return moves[random.nextInt(count)];
+    }
+}
@@ -0,0 +1,156 @@
+import java.io.*;
+import java.nio.file.*;
+
+/**
+ * A ReplayEngine checks archived games by dealing each one again from its seed and
+ * making its moves through the rules of Solitaire. A record is valid if every move
+ * is legal and is made exactly as recorded: a draw moves as many cards, and a move
+ * turns up a card exactly when the record says it did.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class ReplayEngine
+{
+    /**
+     * Replays a game record file and prints what was found. Given a number of
+     * games, first archives that many games played by a GreedyPolicy to the file.
+     *
+     * @param   args    the file, and optionally the number of games to archive
+     *                  to it first
+     * @throws  IOException if the file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        Path path = Paths.get(args[0]);
+        if (args.length > 1)
+        {
+            int games = Integer.parseInt(args[1]);
+            PlayPolicy policy = new GreedyPolicy();
+            SimulationStats stats = new SimulationStats();
+            try (GameRecordWriter writer = new GameRecordWriter(path))
+            {
+                for (long seed = 1; seed <= games; seed++)
+                {
+                    Solitaire game = new Solitaire(seed);
+                    BatchSimulator.play(game, policy, stats);
+                    writer.write(game);
+                }
+            }
+        }
+
+        ReplayEngine engine = new ReplayEngine();
+        long start = System.nanoTime();
+        engine.replay(path);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games, %d moves, %d won, %d invalid in %.2f s (%.0f moves/s)%n",
+                          engine.getRecordCount(), engine.getMoveCount(), engine.getWinCount(),
+                          engine.getFailureCount(), seconds, engine.getMoveCount() / seconds);
+    }
+
+    private Solitaire game;   //the game each record is replayed in; null until the first
+    private long records;
+    private long moves;
+    private long wins;
+    private long failures;
+
+    /**
+     * Replays every record of a game record file.
+     *
+     * @param   path    the file to be replayed
+     * @return          the number of invalid records found in the file
+     * @throws  IOException if the file cannot be read or is not a game record file
+     */
+    public long replay(Path path) throws IOException
+    {
+        long failed = 0;
+        try (GameRecordReader reader = new GameRecordReader(path))
+        {
+            while (reader.next())
+            {
+                if (check(reader) != -1)
+                {
+                    failed++;
+                }
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Replays the current record of a reader.
+     *
+     * @param   record  the reader, positioned at the record to be checked
+     * @return          the index of the first move which was illegal or was not made
+     *                  as recorded, or -1 if the whole record is valid
+     */
+    public int check(GameRecordReader record)
+    {
+        records++;
+        if (game == null)
+        {
+            game = new Solitaire(record.getSeed());
+        }
+        else
+        {
+            game.newDeal(record.getSeed());
+        }
+        for (int i = 0; i < record.getMoveCount(); i++)
+        {
+            int move = record.getMove(i);
+            if (!game.makeMove(move) || game.getMove(i) != move)
+            {
+                moves += i;
+                failures++;
+                return i;
+            }
+        }
+
+        moves += record.getMoveCount();
+        if (game.hasWon())
+        {
+            wins++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of records checked so far.
+     *
+     * @return  the number of games replayed
+     */
+    public long getRecordCount()
+    {
+        return records;
+    }
+
+    /**
+     * Returns the number of moves replayed so far, not counting invalid moves.
+     *
+     * @return  the number of moves replayed
+     */
+    public long getMoveCount()
+    {
+        return moves;
+    }
+
+    /**
+     * Returns the number of valid records so far which ended in a win.
+     *
+     * @return  the number of games won
+     */
+    public long getWinCount()
+    {
+        return wins;
+    }
+
+    /**
+     * Returns the number of invalid records found so far.
+     *
+     * @return  the number of invalid games
+     */
+    public long getFailureCount()
+    {
+        return failures;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * SimulationStats totals the results of a batch of simulated games. Each thread
+ * of a simulation keeps its own totals, which are merged once all of the games
+ * have been played, so threads never contend for the counters.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class SimulationStats
+{
+    private long games;
+    private long wins;
+    private long moves;
+    private long stockCycles;
+    private long foundationCards;
+    private long elapsedNanos;
+
+    /**
+     * Records the result of one game.
+     *
+     * @param   won             true if the game was won
+     * @param   moveCount       the number of moves made
+     * @param   cycleCount      the number of times the waste was recycled
+     * @param   cardCount       the number of cards on the foundations at the end
+     */
+    public void record(boolean won, int moveCount, int cycleCount, int cardCount)
+    {
+        games++;
+        if (won)
+        {
+            wins++;
+        }
+        moves += moveCount;
+        stockCycles += cycleCount;
+        foundationCards += cardCount;
+    }
+
+    /**
+     * Adds the totals of other stats to these.
+     *
+     * @param   other   the stats to be added
+     */
+    public void merge(SimulationStats other)
+    {
+        games += other.games;
+        wins += other.wins;
+        moves += other.moves;
+        stockCycles += other.stockCycles;
+        foundationCards += other.foundationCards;
+    }
+
+    /**
+     * Sets the wall clock time the games took to play.
+     *
+     * @param   nanos   the time, in nanoseconds
+     */
+    public void setElapsedNanos(long nanos)
+    {
+        elapsedNanos = nanos;
+    }
+
+    /**
+     * Returns the number of games played.
+     *
+     * @return  the number of games
+     */
+    public long getGames()
+    {
+        return games;
+    }
+
+    /**
+     * Returns the number of games won.
+     *
+     * @return  the number of wins
+     */
+    public long getWins()
+    {
+        return wins;
+    }
+
+    /**
+     * Returns the fraction of games won.
+     *
+     * @return  the win rate, where 0 <= rate <= 1
+     */
+    public double getWinRate()
+    {
+        return (double) wins / Math.max(1, games);
+    }
+
+    /**
+     * Returns the mean number of moves made per game.
+     *
+     * @return  the average number of moves
+     */
+    public double getAverageMoves()
+    {
+        return (double) moves / Math.max(1, games);
+    }
+
+    /**
+     * Returns the mean number of times the waste was recycled per game.
+     *
+     * @return  the average number of stock cycles
+     */
+    public double getAverageStockCycles()
+    {
+        return (double) stockCycles / Math.max(1, games);
+    }
+
+    /**
+     * Returns the mean number of cards on the foundations at the end of a game.
+     *
+     * @return  the average foundation progress, where 0 <= progress <= 52
+     */
+    public double getAverageFoundationCards()
+    {
+        return (double) foundationCards / Math.max(1, games);
+    }
+
+    /**
+     * Returns the rate at which games were played.
+     *
+     * @return  the number of games per hour of wall clock time
+     */
+    public double getGamesPerHour()
+    {
+        return games * 3600e9 / Math.max(1, elapsedNanos);
+    }
+
+    /**
+     * Describes the stats.
+     *
+     * @return  a one-line summary
+     */
+    public String toString()
+    {
+        return String.format("%d games, win rate %.4f, %.1f moves, %.2f stock cycles, "
+                             + "%.1f foundation cards, %.0f games/hour",
+                             games, getWinRate(), getAverageMoves(), getAverageStockCycles(),
+                             getAverageFoundationCards(), getGamesPerHour());
+    }
+}
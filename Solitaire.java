@@ -1,426 +1,851 @@
-import java.util.*;
-
-/**
- * A Solitaire object keeps track of a game of Solitaire, where a 
- * stock, waste, 7 piles, and 4 foundations are manipulated by the
- * user with the end goal of transferring all cards to the foundations.
- * 
- * @author  Annabelle Perng
- * @version 11.08.2018
- */
-public class Solitaire
-{
-    /**
-     * Initializes a new Solitaire game.
-     * 
-     * @param   args    arguments for the command line
-     */
-    public static void main(String[] args)
-    {
-        new Solitaire();
-    }
-
-    private Stack<Card> stock;
-    private Stack<Card> waste;
-    private Stack<Card>[] foundations;
-    private Stack<Card>[] piles;
-    private SolitaireDisplay display;
-    //private int victories;
-    //private boolean hasWon;
-
-    /**
-     * Constructor for objects of Solitaire class. Initializes the stock,
-     * waste, piles, and foundations, shuffles the cards, then deals
-     * the cards.
-     */
-    public Solitaire()
-    {
-        foundations = new Stack[4];
-        piles = new Stack[7];
-        stock = new Stack<Card>();
-        waste = new Stack<Card>();
-
-        createStock();
-        //victories = 0;
-        deal();
-
-        display = new SolitaireDisplay(this);
-    }
-
-    /**
-     * Creates the stock, which will initially contain all 52
-     * playing cards, sorted in random order.
-     */
-    private void createStock()
-    {
-        ArrayList<Card> allCards = new ArrayList<Card>();
-        String suit="";
-        for (int j=0; j<4; j++)
-        {
-            if (j==0)
-            {
-                suit="c";
-            }
-            else if (j==1)
-            {
-                suit="d";
-            }
-            else if (j==2)
-            {
-                suit="h";
-            }
-            else
-            {
-                suit="s";
-            }
-
-            for (int k=1; k<=13; k++)
-            {
-                Card c = new Card(k, suit, false);
-                allCards.add(c);
-            }
-        }
-
-        for (int i=0; i<52; i++)
-        {
-            int temp = (int)(Math.random()*allCards.size());
-            Card c = allCards.get(temp);
-            stock.push(c);
-            allCards.remove(temp);
-        }
-    }
-
-    /**
-     * Deals the cards into each of the piles, with 1 card dealt into the 
-     * leftmost pile, 2 cards dealt into the second-to-leftmost pile, etc.
-     * Turns up the card at the top of each pile.
-     */
-    private void deal()
-    {
-        for (int i=0; i<7; i++)
-        {
-            piles[i] = new Stack<Card>();
-            for (int j=0; j<=i; j++)
-            {
-                Card dealedCard = stock.pop();
-                if (j==i)
-                {
-                    dealedCard.turnUp();
-                }
-                piles[i].push(dealedCard);
-            }
-        }
-    }
-
-    /**
-     * Deals three cards from the stock onto the waste. The last dealt
-     * card is turned face up.
-     */
-    private void dealThreeCards()
-    {
-        int counter = 3;
-
-        while (counter>0 && !stock.isEmpty())
-        {
-            Card dealedCard = stock.pop();
-            dealedCard.turnUp();
-            waste.push(dealedCard);
-            counter--;
-        }
-    }
-
-    /**
-     * Resets the stock by transferring all cards from the waste back onto the stock.
-     */
-    private void resetStock()
-    {
-        while (!waste.isEmpty())
-        {
-            stock.push(waste.pop());
-            stock.peek().turnDown();
-        }
-    }
-
-    /**
-     * Returns the card at the top of the stock; returns null if the stock is empty.
-     * 
-     * @return  the first card in the stock
-     */
-    public Card getStockCard()
-    {
-        if (stock.isEmpty())
-        {
-            return null;
-        }
-        return stock.peek();
-    }
-
-    /**
-     * Returns the card at the top of the waste; returns null if the waste is empty.
-     * 
-     * @return  the first card in the waste
-     */
-    public Card getWasteCard()
-    {
-        if (waste.isEmpty())
-        {
-            return null;
-        }
-        return waste.peek();
-    }
-
-    /**
-     * Returns the card at the top of the foundation; returns null if foundation is empty.
-     * 
-     * @param   index   the index corresponding to the foundation pile of interest; 0 <= index <= 3
-     * @return          the card at the top of the foundation at index index
-     */
-    public Card getFoundationCard(int index)
-    {
-        if (foundations[index]==null || foundations[index].isEmpty())
-        {
-            return null;
-        }
-        return foundations[index].peek();
-    }
-
-    /**
-     * Returns a reference to the selected pile.
-     * 
-     * @param   index   the index corresponding to the pile of interest; 0 <= index <= 6
-     * @return          a reference to the pile at index index
-     */
-    public Stack<Card> getPile(int index)
-    {
-        return piles[index];
-    }
-
-    /**
-     * Called when the stock is clicked; interprets this action as either
-     * a selection / deselection of the stock. If the selected stock is non-empty,
-     * three cards are dealt from the stock to the waste. Otherwise, all the cards
-     * from the waste are moved back onto the stock.
-     */
-    public void stockClicked()
-    {
-        if (!display.isWasteSelected() && !display.isPileSelected())
-        {
-            if (!stock.isEmpty())
-            {
-                dealThreeCards();
-            }
-            else
-            {
-                resetStock();
-            }
-        }
-        System.out.println("stock clicked");
-    }
-
-    /**
-     * Called when the waste is clicked; interprets this action as either
-     * a selection / deselection of the waste. (If the waste is non-empty,
-     * the top-most card may be moved onto one of the piles or one of the foundations
-     * if such a move is legal.)
-     */
-    public void wasteClicked()
-    {
-        if (display.isWasteSelected())
-        {
-            display.unselect();
-        }
-        else
-        {
-            if (!waste.isEmpty() && !display.isPileSelected())
-            {
-                display.selectWaste();
-            }
-        }
-        System.out.println("waste clicked");
-    }
-
-    
-    /**
-     * Called when a foundation pile is clicked; interprets this action as either
-     * a selection / deselection of the foundation. If the user has already
-     * selected a pile or the waste, the card at the top of the pile/waste is
-     * moved to the foundation, if such a move is legal.
-     * 
-     * @param   index   the index corresponding to the foundation pile of interest; 0 <= index <= 3
-     */
-    public void foundationClicked(int index)
-    {
-        if (foundations[index]==null)
-        {
-            foundations[index]=new Stack<Card>();
-        }
-
-        if (display.isWasteSelected() && !waste.isEmpty())
-        {
-            if (canAddToFoundation(waste.peek(), index))
-            {
-                foundations[index].push(waste.pop());
-            }
-        }
-        else if (display.isPileSelected() && !piles[display.selectedPile()].isEmpty())
-        {
-            int selected = display.selectedPile();
-            if (canAddToFoundation(piles[selected].peek(), index))
-            {
-                foundations[index].push(piles[selected].pop());
-            }
-
-            else
-            {
-                display.unselect();
-            }
-        }
-        
-        System.out.println("foundation #" + index + " clicked");
-    }
-
-    /**
-     * Called when a pile is clicked; interprets this action as either
-     * a selection / deselection of the pile. If the user has already
-     * selected a pile, the previously selected pile will be moved onto
-     * the pile at index index, if such a move is legal.
-     * 
-     * If the user has already selected the waste, the card at the top of the waste
-     * will be moved onto the pile at index index, if such a move is legal.
-     * 
-     * @param   index   the index corresponding to the pile of interest; 0 <= index <= 6
-     */
-    public void pileClicked(int index)
-    {
-        if (display.isWasteSelected() && !waste.isEmpty())
-        {
-            if (canAddToPile(waste.peek(), index))
-            {
-                piles[index].push(waste.pop());
-                display.unselect();
-            }
-        }
-        else if (display.isPileSelected())
-        {
-            int selected = display.selectedPile();
-            if (selected == index)
-            {
-                display.unselect();
-            }
-            else
-            {
-                Stack<Card>topCards = removeFaceUpCards(selected);
-                //System.out.println("apple");
-                if (!topCards.isEmpty() && canAddToPile(topCards.peek(),index))
-                {
-                    addToPile(topCards, index);
-                    //System.out.println("banan");
-                }
-                else //can't move; returns popped cards to original deck
-                {
-                    addToPile(topCards, selected);
-                    //System.out.println("carrot");
-                }
-            }
-            display.unselect();
-        }
-        else
-        {
-            if (!(piles[index].isEmpty()))
-            {
-                //System.out.println(index);
-                piles[index].peek().turnUp();
-            }
-            display.selectPile(index);
-        }
-
-        //System.out.println("pile selected " + display.isPileSelected());
-        System.out.println("pile #" + index + " clicked");
-    }
-
-    /**
-     * Determines if a card may be added to a pile.
-     * 
-     * @param   card    the card of interest
-     * @param   index   the index corresponding to the pile to be added to
-     * 
-     * @return  true if the parameter card can be added to the pile (its
-     *          rank is one less than the card at the top of the pile, and
-     *          its color is opposite); otherwise,
-     *          false
-     */
-    private boolean canAddToPile(Card card, int index)
-    {
-        if (piles[index].isEmpty())
-        {
-            return (card.getRank()==13);
-        }
-        else
-        {
-            Card top = piles[index].peek();
-            return (card.getRank() == top.getRank() - 1 && card.isRed() != top.isRed());
-        }
-    }
-
-    /**
-     * Removes and returns all the face up cards from the designated pile.
-     * 
-     * @param   index   the index corresponding to the pile to be removed from;
-     *                  0 <= index <= 6
-     * @return          the face-up cards in the pile at index index
-     */
-    private Stack<Card> removeFaceUpCards(int index)
-    {
-        Stack<Card>faceUp = new Stack<Card>();
-        while (!(piles[index].isEmpty()) && (piles[index].peek().isFaceUp()))
-        {
-            faceUp.push(piles[index].pop());
-        }
-        return faceUp;
-    }
-
-    /**
-     * Removes elements from cards, and adds them to the given pile.
-     * 
-     * @precondition    the Stack of cards can be legally added to the pile at index index
-     * @param   cards   the index corresponding with the pile to be added to
-     * @param   index   the cards to be added to the pile
-     */
-    private void addToPile(Stack<Card> cards, int index)
-    {
-        while (!cards.isEmpty())
-        {
-            piles[index].push(cards.pop());
-        }
-    }
-
-    /**
-     * Determines if a given card can be legally added to the
-     * designated foundation pile. A card may be added to an empty foundation if it
-     * is an Ace. A card may be added to a non-empty foundation if it has the same suit
-     * and subsequent rank to the card at the top of the foundation.
-     * 
-     * @param   card    the card to be (potentially) added to the foundation
-     * @param   index   the index corresponding to the foundation to be (potentially)
-     *                  added to; 0 <= index <= 4
-     * 
-     * @return  true if the card can be legally added to the foundation at index index; otherwise,
-     *          false
-     */
-    private boolean canAddToFoundation(Card card, int index)
-    {
-        if (foundations[index]==null || foundations[index].isEmpty())
-        {
-            return (card.getRank()==1);
-        }
-
-        Card cardBefore = foundations[index].peek();
-        if ((card.getSuit().equals(cardBefore.getSuit())) &&
-            (card.getRank() == cardBefore.getRank() + 1))
-        {
-            return true;
-        }
-
-        return false;
-    }
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * A Solitaire object keeps track of a game of Solitaire, where a 
+ * stock, waste, 7 piles, and 4 foundations are manipulated by the
+ * user with the end goal of transferring all cards to the foundations.
+ * 
+ * The game does not depend on a display: moves are made through drawFromStock,
+ * moveWasteToPile, movePileToPile, and moveToFoundation, each of which applies
+ * the move only if it is legal. SolitaireDisplay is a thin client which
+ * translates mouse clicks into these moves.
+ * 
+ * @author  Annabelle Perng
+ * @version 11.08.2018
+ */
+public class Solitaire
+{
+    /**
+     * Initializes a new Solitaire game.
+     * 
+     * @param   args    arguments for the command line; if given, args[0] is the
+     *                  seed of the deal to be played, or args[0] is a DealDatabase
+     *                  file and args[1] the difficulty band of the winnable deal
+     *                  to be played
+     * @throws  IOException if the deal database cannot be read
+     */
+    public static void main(String[] args) throws IOException
+    {
+        long start = System.nanoTime();
+        CardImageCache.preload();
+        Telemetry.get().startupBegan(start);
+
+        if (args.length > 1)
+        {
+            DealDatabase deals = new DealDatabase(Paths.get(args[0]));
+            int band = Integer.parseInt(args[1]);
+            new SolitaireDisplay(new Solitaire(deals, deals.pickWinnable(band, new Random())));
+        }
+        else if (args.length > 0)
+        {
+            new SolitaireDisplay(new Solitaire(Long.parseLong(args[0])));
+        }
+        else
+        {
+            new SolitaireDisplay(new Solitaire());
+        }
+    }
+
+    /**
+     * The source index denoting the waste in moveToFoundation.
+     */
+    public static final int WASTE = -1;
+
+    /**
+     * The number of cards drawn from the stock at a time.
+     */
+    public static final int DRAW_SIZE = 3;
+
+    private Tableau tableau;
+    private MoveJournal journal;
+    private long seed;
+    private int dirtyPiles;      //bit p is set if Tableau pile p has changed
+    private int[] dirtyDepths;   //the lowest position changed in each dirty pile
+    private boolean allDirty;
+    private byte[] deck;         //the deck newDeal shuffles into; null until first needed
+    //private int victories;
+    //private boolean hasWon;
+
+    /**
+     * Constructor for objects of Solitaire class. Initializes the stock,
+     * waste, piles, and foundations, shuffles the cards, then deals
+     * the cards. The game is headless; to play it onscreen, pass it to
+     * a SolitaireDisplay.
+     */
+    public Solitaire()
+    {
+        this(DealGenerator.randomSeed());
+    }
+
+    /**
+     * Constructor for objects of Solitaire class which plays a given deal.
+     * The same seed always produces the same deal.
+     * 
+     * @param   seed    the seed of the deal to be played
+     */
+    public Solitaire(long seed)
+    {
+        this.seed = seed;
+        journal = new MoveJournal();
+        dirtyDepths = new int[Tableau.NUM_PILES];
+        allDirty = true;
+        createStock();
+        //victories = 0;
+        deal();
+    }
+
+    /**
+     * Constructor for objects of Solitaire class which plays a deal from a
+     * DealDatabase, taking its cards from the database instead of shuffling them.
+     * 
+     * @param   deals   the database holding the deal
+     * @param   record  the number of the deal's record in the database
+     */
+    public Solitaire(DealDatabase deals, int record)
+    {
+        seed = deals.getSeed(record);
+        journal = new MoveJournal();
+        dirtyDepths = new int[Tableau.NUM_PILES];
+        allDirty = true;
+        createStock(deals, record);
+        deal();
+    }
+
+    /**
+     * Constructor for objects of Solitaire class which copies another game, so that
+     * moves may be tried on the copy without changing the original.
+     * 
+     * @param   other   the game to be copied
+     */
+    public Solitaire(Solitaire other)
+    {
+        tableau = new Tableau(other.tableau);
+        journal = new MoveJournal();
+        journal.copyFrom(other.journal);
+        seed = other.seed;
+        dirtyDepths = new int[Tableau.NUM_PILES];
+        allDirty = true;
+    }
+
+    /**
+     * Starts this game over with another deal, as if it had just been constructed
+     * with the deal's seed, reusing its arrays, so that games can be played or
+     * replayed one after another without allocating a game for each.
+     * 
+     * @param   seed    the seed of the deal to be played
+     */
+    public void newDeal(long seed)
+    {
+        this.seed = seed;
+        if (deck == null)
+        {
+            deck = new byte[DealGenerator.DEAL_SIZE];
+        }
+        DealGenerator.deal(seed, deck, 0);
+        tableau.reset(deck);
+        journal.clear();
+        allDirty = true;
+        deal();
+    }
+
+    /**
+     * Replaces the state of this game with that of another game of the same deal.
+     * 
+     * @param   other   the game to be copied
+     */
+    public void copyFrom(Solitaire other)
+    {
+        tableau.copyFrom(other.tableau);
+        journal.copyFrom(other.journal);
+        seed = other.seed;
+        allDirty = true;
+    }
+
+    /**
+     * Creates the stock, which will initially contain all 52
+     * playing cards, sorted in the order given by the seed.
+     */
+    private void createStock()
+    {
+        byte[] deck = new byte[DealGenerator.DEAL_SIZE];
+        DealGenerator.deal(seed, deck, 0);
+        tableau = new Tableau(deck);
+    }
+
+    /**
+     * Creates the stock from the cards of a deal stored in a DealDatabase, which
+     * are in the same order as the deal's seed would give.
+     * 
+     * @param   deals   the database holding the deal
+     * @param   record  the number of the deal's record in the database
+     */
+    private void createStock(DealDatabase deals, int record)
+    {
+        byte[] deck = new byte[DealGenerator.DEAL_SIZE];
+        deals.getDeal(record, deck, 0);
+        tableau = new Tableau(deck);
+    }
+
+    /**
+     * Returns the seed of the deal being played, from which the deal may be regenerated.
+     * 
+     * @return  the seed of the deal
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Deals the cards into each of the piles, with 1 card dealt into the 
+     * leftmost pile, 2 cards dealt into the second-to-leftmost pile, etc.
+     * Turns up the card at the top of each pile.
+     */
+    private void deal()
+    {
+        for (int i=0; i<7; i++)
+        {
+            for (int j=0; j<=i; j++)
+            {
+                tableau.move(Tableau.STOCK, Tableau.PILE + i, 1);
+            }
+            tableau.turnDownAll(Tableau.PILE + i);
+            tableau.turnUpTop(Tableau.PILE + i);
+        }
+    }
+
+    /**
+     * Deals three cards from the stock onto the waste. The last dealt
+     * card is turned face up.
+     */
+    private void dealThreeCards()
+    {
+        markDirty(Tableau.STOCK, 0);
+        markDirty(Tableau.WASTE, 0);
+        int drawn = tableau.draw(DRAW_SIZE);
+        journal.record(Move.encode(Tableau.STOCK, Tableau.WASTE, drawn));
+    }
+
+    /**
+     * Resets the stock by transferring all cards from the waste back onto the stock.
+     */
+    private void resetStock()
+    {
+        journal.record(Move.encode(Tableau.WASTE, Tableau.STOCK, tableau.size(Tableau.WASTE)));
+        tableau.recycleWaste();
+        markDirty(Tableau.STOCK, 0);
+        markDirty(Tableau.WASTE, 0);
+    }
+
+    /**
+     * Returns the layout of the cards, for code which searches or analyzes the game.
+     * The tableau must not be modified; moves must be made through this game.
+     * 
+     * @return  the tableau holding the stock, waste, foundations, and piles
+     */
+    public Tableau getTableau()
+    {
+        return tableau;
+    }
+
+    /**
+     * Determines whether a pile of the tableau has changed since clearDirty was
+     * last called, so that a display need only redraw what has changed.
+     * 
+     * @param   pile    the tableau pile of interest; 0 <= pile < Tableau.NUM_PILES
+     * @return          true if the pile has changed; otherwise,
+     *                  false
+     */
+    public boolean isDirty(int pile)
+    {
+        return allDirty || (dirtyPiles & (1 << pile)) != 0;
+    }
+
+    /**
+     * Returns the lowest position in a pile of the tableau which has changed since
+     * clearDirty was last called; the cards below it are as they were.
+     * 
+     * @param   pile    the tableau pile of interest; 0 <= pile < Tableau.NUM_PILES
+     * @return          the position, where 0 is the bottom of the pile
+     */
+    public int getDirtyDepth(int pile)
+    {
+        if (allDirty)
+        {
+            return 0;
+        }
+        return dirtyDepths[pile];
+    }
+
+    /**
+     * Marks every pile of the tableau as unchanged.
+     */
+    public void clearDirty()
+    {
+        dirtyPiles = 0;
+        allDirty = false;
+    }
+
+    /**
+     * Records that a pile of the tableau has changed.
+     * 
+     * @param   pile    the tableau pile which changed; 0 <= pile < Tableau.NUM_PILES
+     * @param   depth   the lowest position in the pile which changed
+     */
+    private void markDirty(int pile, int depth)
+    {
+        int bit = 1 << pile;
+        if (depth < 0)
+        {
+            depth = 0;
+        }
+        if ((dirtyPiles & bit) == 0 || depth < dirtyDepths[pile])
+        {
+            dirtyDepths[pile] = depth;
+        }
+        dirtyPiles |= bit;
+    }
+
+    /**
+     * Returns the card at the top of a pile of the tableau; returns null if that
+     * pile is empty.
+     * 
+     * @param   pile    the tableau pile of interest; 0 <= pile < Tableau.NUM_PILES
+     * @return          the card at the top of the pile
+     */
+    private Card topCard(int pile)
+    {
+        if (tableau.isEmpty(pile))
+        {
+            return null;
+        }
+        return Card.of(tableau.top(pile));
+    }
+
+    /**
+     * Returns the card at the top of the stock; returns null if the stock is empty.
+     * 
+     * @return  the first card in the stock
+     */
+    public Card getStockCard()
+    {
+        return topCard(Tableau.STOCK);
+    }
+
+    /**
+     * Returns the card at the top of the waste; returns null if the waste is empty.
+     * 
+     * @return  the first card in the waste
+     */
+    public Card getWasteCard()
+    {
+        return topCard(Tableau.WASTE);
+    }
+
+    /**
+     * Returns the card at the top of the foundation; returns null if foundation is empty.
+     * 
+     * @param   index   the index corresponding to the foundation pile of interest; 0 <= index <= 3
+     * @return          the card at the top of the foundation at index index
+     */
+    public Card getFoundationCard(int index)
+    {
+        return topCard(Tableau.FOUNDATION + index);
+    }
+
+    /**
+     * Returns the number of cards in a pile.
+     * 
+     * @param   index   the index corresponding to the pile of interest; 0 <= index <= 6
+     * @return          the number of cards in the pile at index index
+     */
+    public int getPileSize(int index)
+    {
+        return tableau.size(Tableau.PILE + index);
+    }
+
+    /**
+     * Returns a card in a pile. Whether the card is face up is told by getFaceUpCount.
+     * 
+     * @param   index   the index corresponding to the pile of interest; 0 <= index <= 6
+     * @param   depth   the position of the card, where 0 is the bottom of the pile;
+     *                  0 <= depth < getPileSize(index)
+     * @return          the card at position depth in the pile at index index
+     */
+    public Card getPileCard(int index, int depth)
+    {
+        return Card.of(tableau.card(Tableau.PILE + index, depth));
+    }
+
+    /**
+     * Counts the face up cards at the top of a pile; these are the cards which
+     * may be moved together onto another pile.
+     * 
+     * @param   index   the index corresponding to the pile of interest; 0 <= index <= 6
+     * @return          the number of face up cards at the top of the pile at index index
+     */
+    public int getFaceUpCount(int index)
+    {
+        return tableau.faceUpCount(Tableau.PILE + index);
+    }
+
+    /**
+     * Determines whether the game has been won, i.e. all 52 cards have been
+     * moved onto the foundations.
+     * 
+     * @return  true if every foundation holds a complete suit; otherwise,
+     *          false
+     */
+    public boolean hasWon()
+    {
+        for (int i=0; i<4; i++)
+        {
+            if (tableau.size(Tableau.FOUNDATION + i) != 13)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Draws from the stock. If the stock is non-empty, three cards are dealt
+     * from the stock to the waste. Otherwise, all the cards from the waste are
+     * moved back onto the stock.
+     * 
+     * @return  true if any cards were moved; otherwise (both the stock and
+     *          the waste are empty),
+     *          false
+     */
+    public boolean drawFromStock()
+    {
+        if (!tableau.isEmpty(Tableau.STOCK))
+        {
+            dealThreeCards();
+            return true;
+        }
+        if (!tableau.isEmpty(Tableau.WASTE))
+        {
+            resetStock();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves every card which may safely go up onto a foundation (see
+     * MoveGenerator.safeMove), one move at a time, until none is left. Each move is
+     * recorded, and may be undone, like any other.
+     * 
+     * @return  the number of moves made
+     */
+    public int autoPlay()
+    {
+        int count = 0;
+        for (int move = MoveGenerator.safeMove(tableau); move != -1;
+             move = MoveGenerator.safeMove(tableau))
+        {
+            makeMove(move);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Determines whether the game is certain to be won by moving cards from the
+     * piles onto the foundations: the stock and the waste are empty, and every card
+     * in the piles is face up.
+     * 
+     * @return  true if the game can be completed by autoComplete; otherwise,
+     *          false
+     */
+    public boolean canAutoComplete()
+    {
+        if (!tableau.isEmpty(Tableau.STOCK) || !tableau.isEmpty(Tableau.WASTE))
+        {
+            return false;
+        }
+        for (int i=0; i<7; i++)
+        {
+            if (tableau.faceDownCount(Tableau.PILE + i) > 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Wins the game at once if canAutoComplete, moving the cards left in the piles
+     * onto the foundations. With every card face up, each pile is a run from high
+     * to low, so the lowest card left is always at the top of some pile and may go up.
+     * 
+     * @return  the number of moves made, each of which is recorded; 0 if the game
+     *          cannot be completed this way
+     */
+    public int autoComplete()
+    {
+        if (!canAutoComplete())
+        {
+            return 0;
+        }
+        int count = 0;
+        boolean moved = true;
+        while (moved)
+        {
+            moved = false;
+            for (int i=0; i<7; i++)
+            {
+                int pile = Tableau.PILE + i;
+                if (!tableau.isEmpty(pile))
+                {
+                    int f = MoveGenerator.foundationFor(tableau, tableau.top(pile));
+                    if (f >= 0 && moveToFoundation(i, f - Tableau.FOUNDATION))
+                    {
+                        count++;
+                        moved = true;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lists every legal move from the current position, without changing the game.
+     * 
+     * @param   buffer  the array the moves are written to, each encoded by Move;
+     *                  must have room for MoveGenerator.MAX_MOVES moves
+     * @return          the number of moves written
+     */
+    public int getLegalMoves(int[] buffer)
+    {
+        return MoveGenerator.legalMoves(tableau, buffer, 0);
+    }
+
+    /**
+     * Makes a move encoded by Move, if such a move is legal. A move from the stock
+     * to the waste draws from the stock, and a move from the waste to the stock
+     * recycles the waste.
+     * 
+     * @param   move    the packed move
+     * @return          true if the move was made; otherwise,
+     *                  false
+     */
+    public boolean makeMove(int move)
+    {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        if (from == Tableau.STOCK)
+        {
+            return to == Tableau.WASTE && !tableau.isEmpty(Tableau.STOCK) && drawFromStock();
+        }
+        if (to == Tableau.STOCK)
+        {
+            return from == Tableau.WASTE && tableau.isEmpty(Tableau.STOCK) && drawFromStock();
+        }
+        if (from < Tableau.WASTE || (from > Tableau.WASTE && from < Tableau.PILE))
+        {
+            return false;   //cards never leave the foundations
+        }
+        if ((from == Tableau.WASTE || to < Tableau.PILE) && Move.count(move) != 1)
+        {
+            return false;   //the waste and the foundations give and take one card at a time
+        }
+
+        if (to >= Tableau.PILE)
+        {
+            if (from == Tableau.WASTE)
+            {
+                return moveWasteToPile(to - Tableau.PILE);
+            }
+            return movePileToPile(from - Tableau.PILE, to - Tableau.PILE, Move.count(move));
+        }
+        if (to >= Tableau.FOUNDATION)
+        {
+            if (from == Tableau.WASTE)
+            {
+                return moveToFoundation(WASTE, to - Tableau.FOUNDATION);
+            }
+            return moveToFoundation(from - Tableau.PILE, to - Tableau.FOUNDATION);
+        }
+        return false;
+    }
+
+    /**
+     * Moves the card at the top of the waste onto a pile, if such a move is legal.
+     * 
+     * @param   index   the index corresponding to the pile to be added to; 0 <= index <= 6
+     * @return          true if the card was moved; otherwise,
+     *                  false
+     */
+    public boolean moveWasteToPile(int index)
+    {
+        if (tableau.isEmpty(Tableau.WASTE) || !canAddToPile(tableau.top(Tableau.WASTE), index))
+        {
+            return false;
+        }
+        markDirty(Tableau.WASTE, 0);
+        markDirty(Tableau.PILE + index, tableau.size(Tableau.PILE + index));
+        tableau.move(Tableau.WASTE, Tableau.PILE + index, 1);
+        journal.record(Move.encode(Tableau.WASTE, Tableau.PILE + index, 1));
+        return true;
+    }
+
+    /**
+     * Moves the top count face up cards of one pile onto another pile, if such
+     * a move is legal. The card at the bottom of the moved run must be one rank
+     * lower than, and opposite in color to, the card at the top of the destination
+     * pile (or a King, if the destination is empty). If the move uncovers a face
+     * down card, that card is turned face up.
+     * 
+     * @param   from    the index corresponding to the pile to be removed from; 0 <= from <= 6
+     * @param   to      the index corresponding to the pile to be added to; 0 <= to <= 6
+     * @param   count   the number of cards to be moved; 1 <= count <= getFaceUpCount(from)
+     * @return          true if the cards were moved; otherwise,
+     *                  false
+     */
+    public boolean movePileToPile(int from, int to, int count)
+    {
+        if (from == to || count < 1 || count > getFaceUpCount(from))
+        {
+            return false;
+        }
+
+        int source = Tableau.PILE + from;
+        if (!canAddToPile(tableau.card(source, tableau.size(source) - count), to))
+        {
+            return false;
+        }
+
+        markDirty(source, tableau.size(source) - count - 1);
+        markDirty(Tableau.PILE + to, tableau.size(Tableau.PILE + to));
+        tableau.move(source, Tableau.PILE + to, count);
+        record(Move.encode(source, Tableau.PILE + to, count), tableau.turnUpTop(source));
+        return true;
+    }
+
+    /**
+     * Moves the card at the top of the waste or of a pile onto a foundation, if
+     * such a move is legal. If the move uncovers a face down card in a pile, that
+     * card is turned face up.
+     * 
+     * @param   src     WASTE, or the index corresponding to the pile to be removed
+     *                  from; 0 <= src <= 6
+     * @param   index   the index corresponding to the foundation to be added to;
+     *                  0 <= index <= 3
+     * @return          true if the card was moved; otherwise,
+     *                  false
+     */
+    public boolean moveToFoundation(int src, int index)
+    {
+        int source;
+        if (src == WASTE)
+        {
+            source = Tableau.WASTE;
+        }
+        else
+        {
+            source = Tableau.PILE + src;
+        }
+
+        if (tableau.isEmpty(source) || !PackedCard.isFaceUp(tableau.top(source))
+            || !canAddToFoundation(tableau.top(source), index))
+        {
+            return false;
+        }
+
+        markDirty(source, tableau.size(source) - 2);
+        markDirty(Tableau.FOUNDATION + index, 0);
+        tableau.move(source, Tableau.FOUNDATION + index, 1);
+        record(Move.encode(source, Tableau.FOUNDATION + index, 1), tableau.turnUpTop(source));
+        return true;
+    }
+
+    /**
+     * Records a move which has just been made in the journal.
+     * 
+     * @param   move        the packed move
+     * @param   flipped     true if the move turned up the card it uncovered
+     */
+    private void record(int move, boolean flipped)
+    {
+        if (flipped)
+        {
+            move = Move.withFlip(move);
+        }
+        journal.record(move);
+    }
+
+    /**
+     * Determines whether there is a move to be undone.
+     * 
+     * @return  true if at least one move has been made; otherwise,
+     *          false
+     */
+    public boolean canUndo()
+    {
+        return journal.canUndo();
+    }
+
+    /**
+     * Determines whether there is a move to be redone.
+     * 
+     * @return  true if a move has been undone and no other move made since; otherwise,
+     *          false
+     */
+    public boolean canRedo()
+    {
+        return journal.canRedo();
+    }
+
+    /**
+     * Returns the number of moves made in the game so far (not counting moves
+     * which have been undone).
+     * 
+     * @return  the number of moves made
+     */
+    public int getMoveCount()
+    {
+        return journal.size();
+    }
+
+    /**
+     * Returns one of the moves made in the game so far.
+     * 
+     * @param   index   the number of moves made before it; 0 <= index < getMoveCount()
+     * @return          the move, encoded by Move, with its flip bit set if it turned
+     *                  up a card
+     */
+    public int getMove(int index)
+    {
+        return journal.get(index);
+    }
+
+    /**
+     * Undoes the last move made, turning back down any card it turned up. Undoing
+     * takes a bounded number of steps however long the game has been, so search
+     * code may backtrack this way instead of copying the game.
+     * 
+     * @return  true if a move was undone; otherwise (no moves have been made),
+     *          false
+     */
+    public boolean undo()
+    {
+        if (!journal.canUndo())
+        {
+            return false;
+        }
+
+        int move = journal.undo();
+        int from = Move.from(move);
+        int to = Move.to(move);
+        markDirty(from, 0);
+        markDirty(to, 0);
+        if (from == Tableau.STOCK)
+        {
+            tableau.undraw(Move.count(move));
+        }
+        else if (to == Tableau.STOCK)
+        {
+            tableau.restoreWaste();
+        }
+        else
+        {
+            if (Move.isFlip(move))
+            {
+                tableau.turnDownAll(from);
+            }
+            tableau.move(to, from, Move.count(move));
+        }
+        return true;
+    }
+
+    /**
+     * Redoes the last move undone.
+     * 
+     * @return  true if a move was redone; otherwise (no move has been undone since
+     *          the last move was made),
+     *          false
+     */
+    public boolean redo()
+    {
+        if (!journal.canRedo())
+        {
+            return false;
+        }
+
+        int move = journal.redo();
+        int from = Move.from(move);
+        int to = Move.to(move);
+        markDirty(from, 0);
+        markDirty(to, 0);
+        if (from == Tableau.STOCK)
+        {
+            tableau.draw(Move.count(move));
+        }
+        else if (to == Tableau.STOCK)
+        {
+            tableau.recycleWaste();
+        }
+        else
+        {
+            tableau.move(from, to, Move.count(move));
+            if (Move.isFlip(move))
+            {
+                tableau.turnUpTop(from);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines if a card may be added to a pile.
+     * 
+     * @param   card    the card of interest, as a PackedCard
+     * @param   index   the index corresponding to the pile to be added to
+     * 
+     * @return  true if the parameter card can be added to the pile (its
+     *          rank is one less than the card at the top of the pile, and
+     *          its color is opposite); otherwise,
+     *          false
+     */
+    private boolean canAddToPile(byte card, int index)
+    {
+        int pile = Tableau.PILE + index;
+        if (tableau.isEmpty(pile))
+        {
+            return (PackedCard.rank(card)==13);
+        }
+        else
+        {
+            return PackedCard.canStack(card, tableau.top(pile));
+        }
+    }
+
+    /**
+     * Determines if a given card can be legally added to the
+     * designated foundation pile. A card may be added to an empty foundation if it
+     * is an Ace. A card may be added to a non-empty foundation if it has the same suit
+     * and subsequent rank to the card at the top of the foundation.
+     * 
+     * @param   card    the card to be (potentially) added to the foundation, as a PackedCard
+     * @param   index   the index corresponding to the foundation to be (potentially)
+     *                  added to; 0 <= index <= 4
+     * 
+     * @return  true if the card can be legally added to the foundation at index index; otherwise,
+     *          false
+     */
+    private boolean canAddToFoundation(byte card, int index)
+    {
+        int foundation = Tableau.FOUNDATION + index;
+        if (tableau.isEmpty(foundation))
+        {
+            return (PackedCard.rank(card)==1);
+        }
+
+        return PackedCard.canFollow(card, tableau.top(foundation));
+    }
 }
\ No newline at end of file
@@ -1,266 +1,858 @@
-import java.awt.*;
-import java.awt.event.*;
-import java.io.*;
-import java.util.*;
-import javax.swing.*;
-
-/**
- * A SolitaireDisplay object deals with the graphics of the Solitaire game 
- * and handles any mouse-based interaction from the user. (Depending on
- * where the user clicks, the SolitaireDisplay selects/deselects different piles
- * on the screen).
- * 
- * @author  Annabelle Perng
- * @version 11.08.2018
- */
-public class SolitaireDisplay extends JComponent implements MouseListener
-{
-    private static final int CARD_WIDTH = 73;
-    private static final int CARD_HEIGHT = 97;
-    private static final int SPACING = 5;  //distance between cards
-    private static final int FACE_UP_OFFSET = 15;  //distance for cascading face-up cards
-    private static final int FACE_DOWN_OFFSET = 5;  //distance for cascading face-down cards
-
-    private JFrame frame;
-    private int selectedRow = -1;
-    private int selectedCol = -1;
-    private Solitaire game;
-
-    /**
-     * Constructor of objects of SolitaireDisplay class.
-     * 
-     * @param   game    the game to be displayed onscreen
-     */
-    public SolitaireDisplay(Solitaire game)
-    {
-        this.game = game;
-
-        frame = new JFrame("Solitaire");
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.getContentPane().add(this);
-
-        this.setPreferredSize(new Dimension(CARD_WIDTH * 7 + SPACING * 8, CARD_HEIGHT * 2
-                              + SPACING * 3 + FACE_DOWN_OFFSET * 7 + 13 * FACE_UP_OFFSET));
-        this.addMouseListener(this);
-
-        frame.pack();
-        frame.setVisible(true);
-    }
-
-    /**
-     * Constructs a visual representation of the solitaire game, including 
-     * the stock, waste, piles, and foundations.
-     * 
-     * @param   g   the display window which the game is to be shown on
-     */
-    public void paintComponent(Graphics g)
-    {
-        //background
-        g.setColor(new Color(0, 128, 0));
-        g.fillRect(0, 0, getWidth(), getHeight());
-
-        //face down
-        drawCard(g, game.getStockCard(), SPACING, SPACING);
-
-        //stock
-        drawCard(g, game.getWasteCard(), SPACING * 2 + CARD_WIDTH, SPACING);
-        if (selectedRow == 0 && selectedCol == 1)
-            drawBorder(g, SPACING * 2 + CARD_WIDTH, SPACING);
-
-        //aces
-        for (int i = 0; i < 4; i++)
-            drawCard(g, game.getFoundationCard(i), SPACING * (4 + i)
-                     + CARD_WIDTH * (3 + i), SPACING);
-
-        //piles
-        for (int i = 0; i < 7; i++)
-        {
-            Stack<Card> pile = game.getPile(i);
-            int offset = 0;
-            for (int j = 0; j < pile.size(); j++)
-            {
-                drawCard(g, pile.get(j), SPACING + (CARD_WIDTH + SPACING) * i,
-                         CARD_HEIGHT + 2 * SPACING + offset);
-                if (selectedRow == 1 && selectedCol == i && j == pile.size() - 1)
-                    drawBorder(g, SPACING + (CARD_WIDTH + SPACING) * i,
-                               CARD_HEIGHT + 2 * SPACING + offset);
-
-                if (pile.get(j).isFaceUp())
-                    offset += FACE_UP_OFFSET;
-                else
-                    offset += FACE_DOWN_OFFSET;
-            }
-        }
-    }
-
-    /**
-     * Displays a card, if it is non-null, at position (x,y).
-     * 
-     * @param   g       the display window which the game is to be shown on
-     * @param   card    the card to be displayed
-     * @param   x       integer coordinate corresponding to the horizontal position of the card
-     * @param   y       integer coordinate corresponding to the vertical position of the card
-     * 
-     */
-    private void drawCard(Graphics g, Card card, int x, int y)
-    {
-        if (card == null)
-        {
-            g.setColor(Color.BLACK);
-            g.drawRect(x, y, CARD_WIDTH, CARD_HEIGHT);
-        }
-        else
-        {
-            //System.out.println(System.getProperty("user.dir"));
-            String fileName = card.getFileName();
-            //System.out.println("DEBUGGING: THE FILE NAME YOU GOT WAS " + fileName);
-            if (!new File(fileName).exists())
-                throw new IllegalArgumentException("bad file name:  " + fileName);
-            Image image = new ImageIcon(fileName).getImage();
-            g.drawImage(image, x, y, CARD_WIDTH, CARD_HEIGHT, null);
-        }
-    }
-
-    /**
-     * Tracks if the mouse has left the area of the display.
-     * 
-     * @param   e   the mouse-based user interaction
-     */
-    public void mouseExited(MouseEvent e)
-    {
-    }
-
-    /**
-     * Tracks if the mouse is within the area of the display.
-     * 
-     * @param   e   the mouse-based user interaction
-     */
-    public void mouseEntered(MouseEvent e)
-    {
-    }
-
-    /**
-     * Tracks a release of the mouse.
-     * 
-     * @param   e   the mouse-based user interaction
-     */
-    public void mouseReleased(MouseEvent e)
-    {
-    }
-
-    /**
-     * Tracks a press of the mouse.
-     * 
-     * @param   e   the mouse-based user interaction
-     */
-    public void mousePressed(MouseEvent e)
-    {
-    }
-
-    /**
-     * Tracks if the mouse has been clicked.
-     * 
-     * @param   e   the mouse-based user interaction
-     */
-    public void mouseClicked(MouseEvent e)
-    {
-        //none selected previously
-        int col = e.getX() / (SPACING + CARD_WIDTH);
-        int row = e.getY() / (SPACING + CARD_HEIGHT);
-        if (row > 1)
-            row = 1;
-        if (col > 6)
-            col = 6;
-
-        if (row == 0 && col == 0)
-            game.stockClicked();
-        else if (row == 0 && col == 1)
-            game.wasteClicked();
-        else if (row == 0 && col >= 3)
-            game.foundationClicked(col - 3);
-        else if (row == 1)
-            game.pileClicked(col);
-        repaint();
-    }
-
-    /**
-     * Draws the border around a card.
-     * 
-     * @param   g       the display window which the game is to be shown on
-     * @param   x       integer coordinate corresponding to the horizontal position of the card
-     * @param   y       integer coordinate corresponding to the vertical position of the card
-     */
-    private void drawBorder(Graphics g, int x, int y)
-    {
-        g.setColor(Color.YELLOW);
-        g.drawRect(x, y, CARD_WIDTH, CARD_HEIGHT);
-        g.drawRect(x + 1, y + 1, CARD_WIDTH - 2, CARD_HEIGHT - 2);
-        g.drawRect(x + 2, y + 2, CARD_WIDTH - 4, CARD_HEIGHT - 4);
-    }
-
-    /**
-     * Unselects any clicked pile.
-     */
-    public void unselect()
-    {
-        selectedRow = -1;
-        selectedCol = -1;
-    }
-
-    /**
-     * Determines if the waste pile has been selected.
-     * 
-     * @return  true if the waste has been selected by the user; otherwise,
-     *          false
-     */
-    public boolean isWasteSelected()
-    {
-        return selectedRow == 0 && selectedCol == 1;
-    }
-
-    /**
-     * Selects the waste pile.
-     */
-    public void selectWaste()
-    {
-        selectedRow = 0;
-        selectedCol = 1;
-    }
-
-    /**
-     * Determines if any of the seven piles has been selected.
-     * 
-     * @return  true if a pile has been selected by the user; otherwise,
-     *          false
-     */
-    public boolean isPileSelected()
-    {
-        return selectedRow == 1;
-    }
-
-    /**
-     * Returns information denoting which of the seven piles has been selected,
-     * if one of the piles has been selected.
-     * 
-     * @return  an integer (0 ≤ integer ≤ 6) corresponding to the pile which has been selected
-     *          (or -1, if no pile is selected)
-     */
-    public int selectedPile()
-    {
-        if (selectedRow == 1)
-            return selectedCol;
-        else
-            return -1;
-    }
-
-    /**
-     * Selects the pile at int index, where 0 ≤ index ≤ 6.
-     * 
-     * @param   index   the index of the pile to be selected
-     */
-    public void selectPile(int index)
-    {
-        selectedRow = 1;
-        selectedCol = index;
-    }
+import java.awt.*;
+import java.awt.event.*;
+import java.util.*;
+import java.util.function.*;
+import javax.swing.*;
+
+/**
+ * A SolitaireDisplay object deals with the graphics of the Solitaire game 
+ * and handles any mouse-based interaction from the user. (Depending on
+ * where the user clicks, the SolitaireDisplay selects/deselects different piles
+ * on the screen, and asks the game to make the corresponding moves).
+ * 
+ * The display never touches the game itself. Each input becomes a command which
+ * a GameEngine applies on its own thread, and the display draws from the immutable
+ * GameSnapshot the engine publishes after it, redrawing the piles the snapshot
+ * reports changed.
+ * 
+ * A frame is composited from three layers: the background, filled around the
+ * table; the cards, kept drawn in an accelerated BackBuffer the size of the table,
+ * whatever the size of the window; and the borders of the selection and the hint,
+ * drawn over the cards as each frame is painted, so that selecting a card or
+ * showing a hint redraws no cards.
+ * 
+ * @author  Annabelle Perng
+ * @version 11.08.2018
+ */
+public class SolitaireDisplay extends JComponent implements MouseListener
+{
+    private static final int CARD_WIDTH = 73;
+    private static final int CARD_HEIGHT = 97;
+    private static final int SPACING = 5;  //distance between cards
+    private static final int FACE_UP_OFFSET = 15;  //distance for cascading face-up cards
+    private static final int FACE_DOWN_OFFSET = 5;  //distance for cascading face-down cards
+    private static final int TABLE_WIDTH = CARD_WIDTH * 7 + SPACING * 8;
+    private static final int TABLE_HEIGHT = CARD_HEIGHT * 2 + SPACING * 3 + FACE_DOWN_OFFSET * 7
+                                            + 13 * FACE_UP_OFFSET;
+    private static final Color TABLE_COLOR = new Color(0, 128, 0);
+    private static final long HINT_BUDGET = 500;  //milliseconds a hint may search for
+    private static final int HINT_CACHE_SIZE = 1024;  //positions whose hints are remembered
+
+    private JFrame frame;
+    private int selectedRow = -1;
+    private int selectedCol = -1;
+    private GameEngine engine;
+    private GameSnapshot snapshot;       //the snapshot shown; read and written on the event thread
+    private Consumer<Solitaire> command; //what the input being handled asks of the game, or null
+    private CardImageCache images = new CardImageCache(CARD_WIDTH, CARD_HEIGHT);
+    private BackBuffer table = new BackBuffer(this);   //the cards, as last drawn
+    private Telemetry telemetry = Telemetry.get();
+    private long inputStart;             //when the input not yet painted arrived, or 0
+    private long frameStart;             //when the frame not yet painted first changed, or 0
+    private boolean repaintPending;      //whether a region has changed but not been painted
+    private HintEngine hints = new HintEngine(HINT_BUDGET, HINT_CACHE_SIZE);
+    private int hint = -1;               //the move being hinted, or -1
+    private int hintRequest;             //counts hint requests, so stale hints are ignored
+    private boolean autoPlayHeld;        //whether moves were undone or redone since the last move
+
+    /**
+     * Constructor of objects of SolitaireDisplay class.
+     * 
+     * @param   game    the game to be displayed onscreen
+     */
+    public SolitaireDisplay(Solitaire game)
+    {
+        this(game, true);
+    }
+
+    /**
+     * Constructor of objects of SolitaireDisplay class which may leave the game
+     * off the screen, so that it can be painted into an image (by a benchmark,
+     * for instance) where there is no display.
+     * 
+     * @param   game        the game to be displayed
+     * @param   windowed    true to show the game in a window; false to size the
+     *                      display without one
+     */
+    public SolitaireDisplay(Solitaire game, boolean windowed)
+    {
+        engine = new GameEngine(game, next -> SwingUtilities.invokeLater(() -> show(next)));
+        snapshot = engine.getSnapshot();
+
+        this.setPreferredSize(new Dimension(TABLE_WIDTH, TABLE_HEIGHT));
+        this.setOpaque(true);
+        this.addMouseListener(this);
+
+        InputMap keys = getInputMap(WHEN_IN_FOCUSED_WINDOW);
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "undo");
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "redo");
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_H, 0), "hint");
+        getActionMap().put("undo", new AbstractAction()
+        {
+            public void actionPerformed(ActionEvent e)
+            {
+                undoOrRedo(true);
+            }
+        });
+        getActionMap().put("redo", new AbstractAction()
+        {
+            public void actionPerformed(ActionEvent e)
+            {
+                undoOrRedo(false);
+            }
+        });
+        getActionMap().put("hint", new AbstractAction()
+        {
+            public void actionPerformed(ActionEvent e)
+            {
+                requestHint();
+            }
+        });
+
+        if (windowed)
+        {
+            frame = new JFrame("Solitaire #" + snapshot.getSeed());
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.getContentPane().add(this);
+            frame.pack();
+            frame.setVisible(true);
+        }
+        else
+            setSize(getPreferredSize());
+    }
+
+    /**
+     * Shows the solitaire game by filling the background around the table, copying
+     * the back buffer, which holds the last picture of the cards, onto the display
+     * window, and drawing the selection and the hint over it. The back buffer is
+     * redrawn in full only when it is created or its contents have been lost;
+     * otherwise only the regions changed by clicks have been redrawn into it.
+     * 
+     * @param   g   the display window which the game is to be shown on
+     */
+    public void paintComponent(Graphics g)
+    {
+        long paintStart = System.nanoTime();
+
+        //background
+        g.setColor(TABLE_COLOR);
+        g.fillRect(TABLE_WIDTH, 0, getWidth() - TABLE_WIDTH, getHeight());
+        g.fillRect(0, TABLE_HEIGHT, TABLE_WIDTH, getHeight() - TABLE_HEIGHT);
+
+        //cards
+        do
+        {
+            if (table.validate(TABLE_WIDTH, TABLE_HEIGHT))
+            {
+                Graphics2D tableGraphics = table.createGraphics();
+                drawGame(tableGraphics);
+                tableGraphics.dispose();
+            }
+            g.drawImage(table.getImage(), 0, 0, null);
+        }
+        while (table.contentsLost());
+
+        //selection and hint
+        drawOverlay(g);
+
+        telemetry.frameShown(frameStart != 0 ? frameStart : paintStart);
+        frameStart = 0;
+        telemetry.firstFrameShown();
+
+        repaintPending = false;
+        if (inputStart != 0)
+        {
+            telemetry.inputShown(inputStart);
+            inputStart = 0;
+        }
+    }
+
+    /**
+     * Constructs a visual representation of the solitaire game, including 
+     * the stock, waste, piles, and foundations, on the table. Only the parts of
+     * the game within the clip of g are drawn.
+     * 
+     * @param   g   the graphics which the game is to be drawn with
+     */
+    private void drawGame(Graphics g)
+    {
+        //background
+        g.setColor(TABLE_COLOR);
+        g.fillRect(0, 0, TABLE_WIDTH, TABLE_HEIGHT);
+
+        //face down
+        drawCard(g, snapshot.getStockCard(), false, SPACING, SPACING);
+
+        //stock
+        drawCard(g, snapshot.getWasteCard(), true, SPACING * 2 + CARD_WIDTH, SPACING);
+
+        //aces
+        for (int i = 0; i < 4; i++)
+            drawCard(g, snapshot.getFoundationCard(i), true, SPACING * (4 + i)
+                     + CARD_WIDTH * (3 + i), SPACING);
+
+        //piles
+        for (int i = 0; i < 7; i++)
+        {
+            int size = snapshot.getPileSize(i);
+            int faceDown = size - snapshot.getFaceUpCount(i);
+            int offset = 0;
+            for (int j = 0; j < size; j++)
+            {
+                boolean faceUp = j >= faceDown;
+                drawCard(g, snapshot.getPileCard(i, j), faceUp, SPACING + (CARD_WIDTH + SPACING) * i,
+                         CARD_HEIGHT + 2 * SPACING + offset);
+
+                if (faceUp)
+                    offset += FACE_UP_OFFSET;
+                else
+                    offset += FACE_DOWN_OFFSET;
+            }
+        }
+    }
+
+    /**
+     * Draws the borders shown over the cards: around the selected card, if any, and
+     * around both ends of the hinted move, if any.
+     * 
+     * @param   g   the graphics which the borders are to be drawn with
+     */
+    private void drawOverlay(Graphics g)
+    {
+        //selection
+        if (isWasteSelected())
+            drawBorder(g, SPACING * 2 + CARD_WIDTH, SPACING);
+        else if (isPileSelected() && snapshot.getPileSize(selectedCol) > 0)
+        {
+            Rectangle top = pileRegion(selectedCol, snapshot.getPileSize(selectedCol) - 1);
+            drawBorder(g, top.x, top.y);
+        }
+
+        //hint
+        if (hint != -1)
+        {
+            drawHint(g, Move.from(hint), Move.count(hint));
+            if (Move.from(hint) != Tableau.STOCK)
+                drawHint(g, Move.to(hint), 0);
+        }
+    }
+
+    /**
+     * Draws the hint border around one end of the hinted move.
+     * 
+     * @param   g       the graphics which the game is to be drawn with
+     * @param   pile    the Tableau index of the pile the move takes from or adds to
+     * @param   count   the number of cards taken from the pile, or 0 if the move
+     *                  adds to it
+     */
+    private void drawHint(Graphics g, int pile, int count)
+    {
+        Rectangle region;
+        if (pile >= Tableau.PILE)
+        {
+            int index = pile - Tableau.PILE;
+            int size = snapshot.getPileSize(index);
+            region = pileRegion(index, Math.max(0, size - Math.max(count, 1)));
+        }
+        else
+            region = topRowRegion(topRowColumn(pile));
+        drawBorder(g, region.x, region.y, Color.CYAN);
+    }
+
+    /**
+     * Displays a card, if it is non-null, at position (x,y).
+     * 
+     * @param   g       the display window which the game is to be shown on
+     * @param   card    the card to be displayed
+     * @param   faceUp  true if the card is face up
+     * @param   x       integer coordinate corresponding to the horizontal position of the card
+     * @param   y       integer coordinate corresponding to the vertical position of the card
+     * 
+     */
+    private void drawCard(Graphics g, Card card, boolean faceUp, int x, int y)
+    {
+        if (!g.hitClip(x, y, CARD_WIDTH + 1, CARD_HEIGHT + 1))
+            return;
+        if (card == null)
+        {
+            g.setColor(Color.BLACK);
+            g.drawRect(x, y, CARD_WIDTH, CARD_HEIGHT);
+        }
+        else
+        {
+            images.draw(g, card, faceUp, x, y);
+        }
+    }
+
+    /**
+     * Tracks if the mouse has left the area of the display.
+     * 
+     * @param   e   the mouse-based user interaction
+     */
+    public void mouseExited(MouseEvent e)
+    {
+    }
+
+    /**
+     * Tracks if the mouse is within the area of the display.
+     * 
+     * @param   e   the mouse-based user interaction
+     */
+    public void mouseEntered(MouseEvent e)
+    {
+    }
+
+    /**
+     * Tracks a release of the mouse.
+     * 
+     * @param   e   the mouse-based user interaction
+     */
+    public void mouseReleased(MouseEvent e)
+    {
+    }
+
+    /**
+     * Tracks a press of the mouse.
+     * 
+     * @param   e   the mouse-based user interaction
+     */
+    public void mousePressed(MouseEvent e)
+    {
+    }
+
+    /**
+     * Tracks if the mouse has been clicked.
+     * 
+     * @param   e   the mouse-based user interaction
+     */
+    public void mouseClicked(MouseEvent e)
+    {
+        inputStart = telemetry.startInput();
+        clearHint();
+        int oldRow = selectedRow;
+        int oldCol = selectedCol;
+
+        //none selected previously
+        int col = e.getX() / (SPACING + CARD_WIDTH);
+        int row = e.getY() / (SPACING + CARD_HEIGHT);
+        if (row > 1)
+            row = 1;
+        if (col > 6)
+            col = 6;
+
+        if (row == 0 && col == 0)
+            stockClicked();
+        else if (row == 0 && col == 1)
+            wasteClicked();
+        else if (row == 0 && col >= 3)
+            foundationClicked(col - 3);
+        else if (row == 1)
+            pileClicked(col);
+
+        //cards which can only help are sent up once nothing is selected, but not
+        //after an undo or redo until a move is made, so an undone card stays put
+        //and the moves which may be redone are kept
+        if (command != null)
+            autoPlayHeld = false;
+        if (!autoPlayHeld && !isWasteSelected() && !isPileSelected())
+            queue(game ->
+            {
+                game.autoPlay();
+                game.autoComplete();
+            });
+
+        if (selectedRow != oldRow || selectedCol != oldCol)
+        {
+            repaintSelection(oldRow, oldCol);
+            repaintSelection(selectedRow, selectedCol);
+        }
+        submitInput();
+    }
+
+    /**
+     * Undoes or redoes a move (Ctrl+Z or Ctrl+Y), dropping any selection, and
+     * redraws what changed.
+     * 
+     * @param   undo    true to undo the last move; false to redo the last move undone
+     */
+    private void undoOrRedo(boolean undo)
+    {
+        inputStart = telemetry.startInput();
+        clearHint();
+        int oldRow = selectedRow;
+        int oldCol = selectedCol;
+        unselect();
+        autoPlayHeld = true;
+
+        if (undo)
+        {
+            telemetry.event(Telemetry.UNDO, 0);
+            queue(Solitaire::undo);
+        }
+        else
+        {
+            telemetry.event(Telemetry.REDO, 0);
+            queue(Solitaire::redo);
+        }
+
+        repaintSelection(oldRow, oldCol);
+        submitInput();
+    }
+
+    /**
+     * Asks the hint engine for a hint (H), which is shown when the engine finds it
+     * unless another input comes first. The event thread does not wait for it.
+     */
+    private void requestHint()
+    {
+        clearHint();
+        int request = hintRequest;
+        engine.submit(game -> hints.request(game, move ->
+            SwingUtilities.invokeLater(() -> showHint(request, move))));
+    }
+
+    /**
+     * Shows a hint found by the hint engine, if it is still wanted.
+     * 
+     * @param   request     the number of the request the hint answers
+     * @param   move        the hinted move, or -1 if there is none
+     */
+    private void showHint(int request, int move)
+    {
+        if (request != hintRequest || move == -1)
+            return;
+        hint = move;
+        repaintMove(hint);
+    }
+
+    /**
+     * Cancels any hint being searched for and erases any hint shown.
+     */
+    private void clearHint()
+    {
+        hintRequest++;
+        hints.cancel();
+        if (hint != -1)
+        {
+            int old = hint;
+            hint = -1;
+            repaintMove(old);
+        }
+    }
+
+    /**
+     * Repaints both ends of a move, so that its hint borders are drawn or erased.
+     * 
+     * @param   move    the move, encoded by Move
+     */
+    private void repaintMove(int move)
+    {
+        repaintRegion(pileArea(Move.from(move)));
+        repaintRegion(pileArea(Move.to(move)));
+    }
+
+    /**
+     * Returns the region of the window showing a whole Tableau pile.
+     * 
+     * @param   pile    the Tableau index of the pile
+     * @return          the region covered by the pile
+     */
+    private Rectangle pileArea(int pile)
+    {
+        if (pile >= Tableau.PILE)
+            return pileRegion(pile - Tableau.PILE, 0);
+        return topRowRegion(topRowColumn(pile));
+    }
+
+    /**
+     * Returns the column of the top row which shows a Tableau pile.
+     * 
+     * @param   pile    the Tableau index of the stock, the waste, or a foundation
+     * @return          0 for the stock, 1 for the waste, or 3 to 6 for the foundations
+     */
+    private static int topRowColumn(int pile)
+    {
+        if (pile == Tableau.STOCK)
+            return 0;
+        if (pile == Tableau.WASTE)
+            return 1;
+        return pile - Tableau.FOUNDATION + 3;
+    }
+
+    /**
+     * Adds to the command the input being handled will submit to the engine.
+     * 
+     * @param   next    the part of the command to be applied last
+     */
+    private void queue(Consumer<Solitaire> next)
+    {
+        if (command == null)
+            command = next;
+        else
+            command = command.andThen(next);
+    }
+
+    /**
+     * Adds a move to the command the input being handled will submit. The move was
+     * chosen from the snapshot shown, which may be stale by the time the engine
+     * applies it, so the game checks it again then; if the game rejects it, the
+     * selection it was made from is dropped, if that is still selected.
+     * 
+     * @param   move    makes the move, returning true if it was legal
+     */
+    private void queueMove(Predicate<Solitaire> move)
+    {
+        int row = selectedRow;
+        int col = selectedCol;
+        queue(game ->
+        {
+            if (!move.test(game))
+                SwingUtilities.invokeLater(() -> moveRejected(row, col));
+        });
+    }
+
+    /**
+     * Drops the selection a rejected move was made from, if it is still selected.
+     * 
+     * @param   row     the row of the selection when the move was chosen; 0 for the
+     *                  top row, 1 for the piles, or -1 if nothing was selected
+     * @param   col     the column of the selection
+     */
+    private void moveRejected(int row, int col)
+    {
+        if (row != -1 && selectedRow == row && selectedCol == col)
+        {
+            unselect();
+            repaintSelection(row, col);
+        }
+    }
+
+    /**
+     * Submits the command the input being handled has built, if any; the input is
+     * finished when the snapshot after it is shown. An input with no command is
+     * finished at once.
+     */
+    private void submitInput()
+    {
+        if (command == null)
+        {
+            finishInput();
+            return;
+        }
+        engine.submit(command);
+        command = null;
+    }
+
+    /**
+     * Shows a snapshot published by the engine, redrawing what its command changed.
+     * Snapshots arrive in the order they were published, so every change is redrawn.
+     * 
+     * @param   next    the snapshot to be shown
+     */
+    private void show(GameSnapshot next)
+    {
+        snapshot = next;
+        redrawDirtyRegions();
+        finishInput();
+    }
+
+    /**
+     * Records the latency of an input which changed nothing on the screen; an
+     * input which did is recorded when the frame showing it has been painted.
+     */
+    private void finishInput()
+    {
+        if (!repaintPending)
+        {
+            telemetry.inputShown(inputStart);
+            inputStart = 0;
+        }
+    }
+
+    /**
+     * Redraws the whole back buffer from the snapshot shown.
+     */
+    public void redrawAll()
+    {
+        redraw(new Rectangle(0, 0, getWidth(), getHeight()));
+    }
+
+    /**
+     * Redraws the parts of the back buffer showing piles which the snapshot
+     * reports have changed, and asks for those regions of the window to be repainted.
+     */
+    private void redrawDirtyRegions()
+    {
+        if (snapshot.isDirty(Tableau.STOCK))
+            redraw(topRowRegion(0));
+        if (snapshot.isDirty(Tableau.WASTE))
+            redraw(topRowRegion(1));
+        for (int i = 0; i < 4; i++)
+            if (snapshot.isDirty(Tableau.FOUNDATION + i))
+                redraw(topRowRegion(3 + i));
+        for (int i = 0; i < 7; i++)
+            if (snapshot.isDirty(Tableau.PILE + i))
+                redraw(pileRegion(i, snapshot.getDirtyDepth(Tableau.PILE + i)));
+    }
+
+    /**
+     * Repaints the card which shows (or showed) a selection, so that its border
+     * is drawn or erased.
+     * 
+     * @param   row     the row of the selection; 0 for the top row, 1 for the piles,
+     *                  or -1 if nothing was selected
+     * @param   col     the column of the selection
+     */
+    private void repaintSelection(int row, int col)
+    {
+        if (row == 0)
+            repaintRegion(topRowRegion(col));
+        else if (row == 1)
+            repaintRegion(pileRegion(col, snapshot.getPileSize(col) - 1));
+    }
+
+    /**
+     * Redraws a region of the back buffer and asks for that region of the window
+     * to be repainted.
+     * 
+     * @param   region  the region to be redrawn
+     */
+    private void redraw(Rectangle region)
+    {
+        if (table.exists())
+        {
+            Graphics2D g = table.createGraphics();
+            g.clip(region);
+            drawGame(g);
+            g.dispose();
+        }
+        repaintRegion(region);
+    }
+
+    /**
+     * Asks for a region of the window to be repainted, and notes when the frame
+     * which will show it first changed.
+     * 
+     * @param   region  the region to be repainted
+     */
+    private void repaintRegion(Rectangle region)
+    {
+        if (frameStart == 0)
+            frameStart = System.nanoTime();
+        repaintPending = true;
+        repaint(region.x, region.y, region.width, region.height);
+    }
+
+    /**
+     * Returns the region of the window showing a card in the top row (the stock,
+     * the waste, or a foundation).
+     * 
+     * @param   col     the column of the card; 0 for the stock, 1 for the waste,
+     *                  3 to 6 for the foundations
+     * @return          the region covered by the card and its border
+     */
+    private Rectangle topRowRegion(int col)
+    {
+        return new Rectangle(SPACING + (CARD_WIDTH + SPACING) * col, SPACING,
+                             CARD_WIDTH + 1, CARD_HEIGHT + 1);
+    }
+
+    /**
+     * Returns the region of the window showing the cards of a pile from a given
+     * position up, and the space below them which removed cards may have covered.
+     * 
+     * @param   index   the index of the pile; 0 <= index <= 6
+     * @param   depth   the position of the lowest card of interest, where 0 is the
+     *                  bottom of the pile
+     * @return          the region from the card at depth to the bottom of the window
+     */
+    private Rectangle pileRegion(int index, int depth)
+    {
+        int offset = 0;
+        int faceDown = snapshot.getPileSize(index) - snapshot.getFaceUpCount(index);
+        for (int j = 0; j < depth && j < snapshot.getPileSize(index); j++)
+        {
+            if (j >= faceDown)
+                offset += FACE_UP_OFFSET;
+            else
+                offset += FACE_DOWN_OFFSET;
+        }
+        int y = CARD_HEIGHT + 2 * SPACING + offset;
+        return new Rectangle(SPACING + (CARD_WIDTH + SPACING) * index, y,
+                             CARD_WIDTH + 1, Math.max(0, getHeight() - y));
+    }
+
+    /**
+     * Called when the stock is clicked; if neither the waste nor a pile is
+     * selected, draws from the stock.
+     */
+    private void stockClicked()
+    {
+        if (!isWasteSelected() && !isPileSelected())
+            queueMove(Solitaire::drawFromStock);
+        telemetry.event(Telemetry.STOCK_CLICK, 0);
+    }
+
+    /**
+     * Called when the waste is clicked; interprets this action as either
+     * a selection / deselection of the waste. (If the waste is non-empty,
+     * the top-most card may then be moved onto one of the piles or one of the
+     * foundations.)
+     */
+    private void wasteClicked()
+    {
+        if (isWasteSelected())
+            unselect();
+        else if (snapshot.getWasteCard() != null && !isPileSelected())
+            selectWaste();
+        telemetry.event(Telemetry.WASTE_CLICK, 0);
+    }
+
+    /**
+     * Called when a foundation pile is clicked. If the user has already
+     * selected a pile or the waste, the card at the top of the pile/waste is
+     * moved to the foundation, if such a move is legal.
+     * 
+     * @param   index   the index corresponding to the foundation pile of interest; 0 <= index <= 3
+     */
+    private void foundationClicked(int index)
+    {
+        int selected = selectedPile();
+        if (isWasteSelected())
+            queueMove(game -> game.moveToFoundation(Solitaire.WASTE, index));
+        else if (isPileSelected()
+                 && snapshot.isLegal(Move.encode(Tableau.PILE + selected, Tableau.FOUNDATION + index, 1)))
+            queueMove(game -> game.moveToFoundation(selected, index));
+        else if (isPileSelected())
+            unselect();
+        telemetry.event(Telemetry.FOUNDATION_CLICK, index);
+    }
+
+    /**
+     * Called when a pile is clicked; interprets this action as either
+     * a selection / deselection of the pile. If the user has already
+     * selected a pile, the face up cards of the previously selected pile will be
+     * moved onto the pile at index index, if such a move is legal.
+     * 
+     * If the user has already selected the waste, the card at the top of the waste
+     * will be moved onto the pile at index index, if such a move is legal.
+     * 
+     * @param   index   the index corresponding to the pile of interest; 0 <= index <= 6
+     */
+    private void pileClicked(int index)
+    {
+        if (isWasteSelected())
+        {
+            if (snapshot.isLegal(Move.encode(Tableau.WASTE, Tableau.PILE + index, 1)))
+            {
+                queueMove(game -> game.moveWasteToPile(index));
+                unselect();
+            }
+        }
+        else if (isPileSelected())
+        {
+            int selected = selectedPile();
+            if (selected != index)
+                queueMove(game -> game.movePileToPile(selected, index,
+                                                      game.getFaceUpCount(selected)));
+            unselect();
+        }
+        else
+            selectPile(index);
+        telemetry.event(Telemetry.PILE_CLICK, index);
+    }
+
+    /**
+     * Draws the border around a card.
+     * 
+     * @param   g       the display window which the game is to be shown on
+     * @param   x       integer coordinate corresponding to the horizontal position of the card
+     * @param   y       integer coordinate corresponding to the vertical position of the card
+     */
+    private void drawBorder(Graphics g, int x, int y)
+    {
+        drawBorder(g, x, y, Color.YELLOW);
+    }
+
+    /**
+     * Draws the border around a card in a given color.
+     * 
+     * @param   g       the display window which the game is to be shown on
+     * @param   x       integer coordinate corresponding to the horizontal position of the card
+     * @param   y       integer coordinate corresponding to the vertical position of the card
+     * @param   color   the color of the border
+     */
+    private void drawBorder(Graphics g, int x, int y, Color color)
+    {
+        g.setColor(color);
+        g.drawRect(x, y, CARD_WIDTH, CARD_HEIGHT);
+        g.drawRect(x + 1, y + 1, CARD_WIDTH - 2, CARD_HEIGHT - 2);
+        g.drawRect(x + 2, y + 2, CARD_WIDTH - 4, CARD_HEIGHT - 4);
+    }
+
+    /**
+     * Unselects any clicked pile.
+     */
+    public void unselect()
+    {
+        selectedRow = -1;
+        selectedCol = -1;
+    }
+
+    /**
+     * Determines if the waste pile has been selected.
+     * 
+     * @return  true if the waste has been selected by the user; otherwise,
+     *          false
+     */
+    public boolean isWasteSelected()
+    {
+        return selectedRow == 0 && selectedCol == 1;
+    }
+
+    /**
+     * Selects the waste pile.
+     */
+    public void selectWaste()
+    {
+        selectedRow = 0;
+        selectedCol = 1;
+    }
+
+    /**
+     * Determines if any of the seven piles has been selected.
+     * 
+     * @return  true if a pile has been selected by the user; otherwise,
+     *          false
+     */
+    public boolean isPileSelected()
+    {
+        return selectedRow == 1;
+    }
+
+    /**
+     * Returns information denoting which of the seven piles has been selected,
+     * if one of the piles has been selected.
+     * 
+     * @return  an integer (0 ≤ integer ≤ 6) corresponding to the pile which has been selected
+     *          (or -1, if no pile is selected)
+     */
+    public int selectedPile()
+    {
+        if (selectedRow == 1)
+            return selectedCol;
+        else
+            return -1;
+    }
+
+    /**
+     * Selects the pile at int index, where 0 ≤ index ≤ 6.
+     * 
+     * @param   index   the index of the pile to be selected
+     */
+    public void selectPile(int index)
+    {
+        selectedRow = 1;
+        selectedCol = index;
+    }
 }
\ No newline at end of file
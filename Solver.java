@@ -0,0 +1,221 @@
+/**
+ * A Solver decides whether a game of Solitaire can be won from its current position,
+ * and if so, finds a sequence of moves which wins it. The search is depth-first,
+ * trying the moves listed by MoveGenerator.searchMoves in order: moves to the
+ * foundations first, then moves between piles, then moves from the waste, and
+ * finally drawing from the stock, with moves which cannot make progress pruned.
+ * Where a card may safely go up to a foundation (see MoveGenerator.safeMove),
+ * that move is the only one tried, and once every card left is face up in the
+ * piles the game is completed at once instead of searched.
+ *
+ * The search works on a single copy of the game, making each move and undoing it
+ * again on the way back, so a step costs a move rather than a copy of the game.
+ * Positions already visited are remembered in a bounded TranspositionTable, by
+ * their canonical hash, so cycles through the stock are cut off and a position
+ * equivalent to one already searched, with its piles in another order or its suits
+ * of a color swapped, is not searched again. A position where nothing can be done
+ * but draw, and none of the cards the draws can ever bring up can be played, is
+ * known to be lost without cycling through the stock at all. These steps are all
+ * taken by a NodeExpander, shared with ParallelSolver. The search gives up
+ * after a given number of positions or a given time, or when its thread is
+ * interrupted.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class Solver
+{
+    public static final int LOST = 0;
+    public static final int WON = 1;
+    public static final int UNKNOWN = -1;   //a limit was reached before the search finished
+
+    private static final int MAX_DEPTH = 1000;
+
+    /**
+     * Solves the deals whose seeds are given on the command line, printing each
+     * result and winning sequence of moves.
+     *
+     * @param   args    the seeds of the deals to be solved
+     */
+    public static void main(String[] args)
+    {
+        Solver solver = new Solver(22, 10000000, 10000);
+        for (int i = 0; i < args.length; i++)
+        {
+            long seed = Long.parseLong(args[i]);
+            int result = solver.solve(new Solitaire(seed));
+            System.out.println("deal " + seed + ": " + describe(result) + " after "
+                               + solver.getNodesSearched() + " positions");
+            int[] solution = solver.getSolution();
+            for (int j = 0; j < solution.length; j++)
+            {
+                System.out.println("  " + Move.toString(solution[j]));
+            }
+        }
+    }
+
+    private TranspositionTable table;
+    private long nodeLimit;
+    private long timeLimit;
+
+    private Solitaire state;
+    private int[] moves;
+    private int[] path;
+    private NodeExpander expander;
+    private int solutionLength;
+    private long nodes;
+    private long deadline;
+    private boolean aborted;
+    private boolean cutOff;
+
+    /**
+     * Constructor for objects of Solver class.
+     *
+     * @param   tableBits   the base 2 logarithm of the number of positions the
+     *                      transposition table holds
+     * @param   nodeLimit   the greatest number of positions one solve may visit
+     * @param   timeLimit   the greatest number of milliseconds one solve may take
+     */
+    public Solver(int tableBits, long nodeLimit, long timeLimit)
+    {
+        table = new TranspositionTable(tableBits);
+        this.nodeLimit = nodeLimit;
+        this.timeLimit = timeLimit;
+        moves = new int[MAX_DEPTH * MoveGenerator.MAX_MOVES];
+        path = new int[MAX_DEPTH + 52];   //room for an auto-completion at the deepest level
+        expander = new NodeExpander();
+    }
+
+    /**
+     * Searches for a way to win a game from its current position. The game
+     * itself is not changed.
+     *
+     * @param   game    the game to be solved
+     * @return          WON if the game can be won, LOST if none of the moves the
+     *                  solver tries lead to a win, or UNKNOWN if the search reached
+     *                  its node or time limit first or was interrupted
+     */
+    public int solve(Solitaire game)
+    {
+        table.clear();
+        nodes = 0;
+        deadline = System.nanoTime() + timeLimit * 1000000L;
+        aborted = false;
+        cutOff = false;
+        solutionLength = 0;
+
+        if (state == null)
+        {
+            state = new Solitaire(game);
+        }
+        state.copyFrom(game);
+
+        if (search(0))
+        {
+            return WON;
+        }
+        if (aborted || cutOff)
+        {
+            return UNKNOWN;
+        }
+        return LOST;
+    }
+
+    /**
+     * Returns the winning moves found by the last solve.
+     *
+     * @return  the moves, in the order they are to be made, each encoded by Move;
+     *          empty if the last solve did not return WON
+     */
+    public int[] getSolution()
+    {
+        int[] solution = new int[solutionLength];
+        System.arraycopy(path, 0, solution, 0, solutionLength);
+        return solution;
+    }
+
+    /**
+     * Returns the number of positions visited by the last solve.
+     *
+     * @return  the number of positions searched
+     */
+    public long getNodesSearched()
+    {
+        return nodes;
+    }
+
+    /**
+     * Searches for a win from the current position of the search's game, leaving the
+     * game in that position on return unless a win was found.
+     *
+     * @param   depth   the number of moves made so far
+     * @return          true if a win was found; otherwise,
+     *                  false
+     */
+    private boolean search(int depth)
+    {
+        if (state.hasWon())
+        {
+            solutionLength = depth;
+            return true;
+        }
+        int completed = expander.complete(state, path, depth);
+        if (completed != -1)
+        {
+            solutionLength = depth + completed;
+            return true;
+        }
+        if (!table.add(Zobrist.canonicalHash(state.getTableau())))
+        {
+            return false;
+        }
+
+        nodes++;
+        if (nodes > nodeLimit || ((nodes & 0xFFF) == 0 && (System.nanoTime() > deadline
+                                                           || Thread.currentThread().isInterrupted())))
+        {
+            aborted = true;
+            return false;
+        }
+        if (depth == MAX_DEPTH)
+        {
+            cutOff = true;
+            return false;
+        }
+
+        int first = depth * MoveGenerator.MAX_MOVES;
+        int last = first + expander.candidateMoves(state.getTableau(), moves, first);
+        for (int i = first; i < last && !aborted; i++)
+        {
+            if (state.makeMove(moves[i]))
+            {
+                path[depth] = moves[i];
+                if (search(depth + 1))
+                {
+                    return true;
+                }
+                state.undo();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Names the result of a solve.
+     *
+     * @param   result  WON, LOST, or UNKNOWN
+     * @return          the name of the result
+     */
+    private static String describe(int result)
+    {
+        if (result == WON)
+        {
+            return "won";
+        }
+        if (result == LOST)
+        {
+            return "lost";
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * A SolverPolicy solves each game before its first move and then plays the
+ * winning moves the Solver found; if the Solver finds no win, it gives up at once.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class SolverPolicy implements PlayPolicy
+{
+    private Solver solver;
+    private int[] solution = new int[0];
+    private int next;
+
+    /**
+     * Constructor for objects of SolverPolicy class.
+     *
+     * @param   solver  the solver to be used; not shared with other threads
+     */
+    public SolverPolicy(Solver solver)
+    {
+        this.solver = solver;
+    }
+
+    /**
+     * Called before the first move of each game.
+     *
+     * @param   game    the game about to be played
+     */
+    public void newGame(Solitaire game)
+    {
+        solver.solve(game);
+        solution = solver.getSolution();
+        next = 0;
+    }
+
+    /**
+     * Chooses the next move.
+     *
+     * @param   game    the game being played
+     * @return          the move to be made, encoded by Move, or -1 to give up
+     */
+    public int nextMove(Solitaire game)
+    {
+        if (next == solution.length)
+        {
+            return -1;
+        }
+        next++;
+        return solution[next - 1];
+    }
+}
@@ -0,0 +1,356 @@
+/**
+ * A Tableau holds the layout of a game of Solitaire: the stock, waste, 4 foundations,
+ * and 7 piles. All 52 PackedCards live in one flat array, where each of the 13 piles
+ * occupies a contiguous run of slots, from its bottom card to its top card, in the
+ * order stock, waste, foundations, piles. A pile is described by the offset where it
+ * ends and by how many of its cards (counting from the bottom) are face down.
+ *
+ * The stock and the waste lie back to back at the start of the array, the stock
+ * from its bottom card to its top card and the waste the other way round, from its
+ * top card to its bottom card, so that the top of the stock and the top of the waste
+ * always meet. Drawing a card then just moves the boundary between them, and
+ * recycling the waste moves it back to the end, without touching a card: a card
+ * there is face down if it lies below the boundary and face up if above it.
+ *
+ * The cards, offsets, and face down counts share a single byte array, so copying a
+ * whole tableau is one array copy. Moves shift the cards lying between the two piles
+ * involved and adjust the offsets in between; no locks are taken and nothing is
+ * allocated.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class Tableau
+{
+    public static final int STOCK = 0;
+    public static final int WASTE = 1;
+    public static final int FOUNDATION = 2;   //first of the 4 foundations
+    public static final int PILE = 6;         //first of the 7 piles
+    public static final int NUM_PILES = 13;
+
+    private static final int END = 52;                  //offset of the pile end offsets
+    private static final int DOWN = END + NUM_PILES;    //offset of the face down counts
+    private static final int STATE_SIZE = DOWN + NUM_PILES;
+
+    private byte[] state;
+    private byte[] scratch;
+
+    /**
+     * Constructor for objects of Tableau class. All of the cards are placed
+     * face down in the stock.
+     *
+     * @param   deck    the 52 PackedCards of the deck, where deck[51] is
+     *                  at the top of the stock
+     */
+    public Tableau(byte[] deck)
+    {
+        state = new byte[STATE_SIZE];
+        scratch = new byte[52];
+        reset(deck);
+    }
+
+    /**
+     * Constructor for objects of Tableau class which copies another tableau.
+     *
+     * @param   other   the tableau to be copied
+     */
+    public Tableau(Tableau other)
+    {
+        state = new byte[STATE_SIZE];
+        scratch = new byte[52];
+        copyFrom(other);
+    }
+
+    /**
+     * Replaces the layout of this tableau with a new deck, all of whose cards are
+     * placed face down in the stock.
+     *
+     * @param   deck    the 52 PackedCards of the deck, where deck[51] is
+     *                  at the top of the stock
+     */
+    public void reset(byte[] deck)
+    {
+        for (int i = 0; i < 52; i++)
+        {
+            state[i] = PackedCard.turnDown(deck[i]);
+        }
+        for (int p = 0; p < NUM_PILES; p++)
+        {
+            state[END + p] = 52;
+            state[DOWN + p] = 0;
+        }
+    }
+
+    /**
+     * Replaces the layout of this tableau with that of another tableau.
+     *
+     * @param   other   the tableau to be copied
+     */
+    public void copyFrom(Tableau other)
+    {
+        System.arraycopy(other.state, 0, state, 0, STATE_SIZE);
+    }
+
+    /**
+     * Returns the offset of the bottom card of a pile.
+     *
+     * @param   pile    the pile of interest; 0 <= pile < NUM_PILES
+     * @return          the offset of the first slot of the pile
+     */
+    private int start(int pile)
+    {
+        if (pile == 0)
+        {
+            return 0;
+        }
+        return state[END + pile - 1];
+    }
+
+    /**
+     * Returns the number of cards in a pile.
+     *
+     * @param   pile    the pile of interest; 0 <= pile < NUM_PILES
+     * @return          the number of cards in the pile
+     */
+    public int size(int pile)
+    {
+        return state[END + pile] - start(pile);
+    }
+
+    /**
+     * Determines whether a pile is empty.
+     *
+     * @param   pile    the pile of interest; 0 <= pile < NUM_PILES
+     * @return          true if the pile holds no cards; otherwise,
+     *                  false
+     */
+    public boolean isEmpty(int pile)
+    {
+        return size(pile) == 0;
+    }
+
+    /**
+     * Returns the number of face down cards at the bottom of a pile.
+     *
+     * @param   pile    the pile of interest; 0 <= pile < NUM_PILES
+     * @return          the number of face down cards
+     */
+    public int faceDownCount(int pile)
+    {
+        if (pile == STOCK)
+        {
+            return state[END + STOCK];
+        }
+        return state[DOWN + pile];
+    }
+
+    /**
+     * Returns the number of face up cards at the top of a pile.
+     *
+     * @param   pile    the pile of interest; 0 <= pile < NUM_PILES
+     * @return          the number of face up cards
+     */
+    public int faceUpCount(int pile)
+    {
+        return size(pile) - faceDownCount(pile);
+    }
+
+    /**
+     * Returns a card in a pile, with its face up bit set if it is face up.
+     *
+     * @param   pile    the pile of interest; 0 <= pile < NUM_PILES
+     * @param   index   the position of the card, where 0 is the bottom of the pile
+     * @return          the PackedCard at that position
+     */
+    public byte card(int pile, int index)
+    {
+        int slot = pile == WASTE ? state[END + WASTE] - 1 - index : start(pile) + index;
+        byte code = state[slot];
+        if (index >= faceDownCount(pile))
+        {
+            return PackedCard.turnUp(code);
+        }
+        return code;
+    }
+
+    /**
+     * Returns the card at the top of a pile, with its face up bit set if it is face up.
+     *
+     * @precondition    the pile is non-empty
+     * @param   pile    the pile of interest; 0 <= pile < NUM_PILES
+     * @return          the PackedCard at the top of the pile
+     */
+    public byte top(int pile)
+    {
+        return card(pile, size(pile) - 1);
+    }
+
+    /**
+     * Moves the top count cards of one pile onto another pile, keeping their order.
+     * The moved cards land face up; the face down count of the source pile shrinks
+     * if it held more cards than remain.
+     *
+     * @precondition    from != to, and the pile at from holds at least count cards;
+     *                  count is 1 if from or to is the waste, whose cards are kept
+     *                  top first. The stock may be either pile, with any count (as
+     *                  when dealing); cards going from the stock to the waste and
+     *                  back should pass by draw and undraw, which move them as a
+     *                  player does
+     * @param   from    the pile to be removed from; 0 <= from < NUM_PILES
+     * @param   to      the pile to be added to; 0 <= to < NUM_PILES
+     * @param   count   the number of cards to be moved
+     */
+    public void move(int from, int to, int count)
+    {
+        //the top of the waste is at its low end, so it is taken from and added to there
+        int fromEnd = from == WASTE ? state[END + STOCK] + count : state[END + from];
+        int toEnd = to == WASTE ? state[END + STOCK] : state[END + to];
+        System.arraycopy(state, fromEnd - count, scratch, 0, count);
+        if (from < to)
+        {
+            System.arraycopy(state, fromEnd, state, fromEnd - count, toEnd - fromEnd);
+            System.arraycopy(scratch, 0, state, toEnd - count, count);
+            for (int p = from; p < to; p++)
+            {
+                state[END + p] -= count;
+            }
+        }
+        else
+        {
+            System.arraycopy(state, toEnd, state, toEnd + count, fromEnd - count - toEnd);
+            System.arraycopy(scratch, 0, state, toEnd, count);
+            for (int p = to; p < from; p++)
+            {
+                state[END + p] += count;
+            }
+        }
+
+        int size = size(from);
+        if (state[DOWN + from] > size)
+        {
+            state[DOWN + from] = (byte) size;
+        }
+    }
+
+    /**
+     * Turns up the card at the top of a pile, if it is face down.
+     *
+     * @param   pile    the pile of interest; 0 <= pile < NUM_PILES
+     * @return          true if a card was turned up; otherwise,
+     *                  false
+     */
+    public boolean turnUpTop(int pile)
+    {
+        int size = size(pile);
+        if (size > 0 && state[DOWN + pile] == size)
+        {
+            state[DOWN + pile] = (byte) (size - 1);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Turns all of the cards in a pile face down.
+     *
+     * @param   pile    the pile of interest; 0 <= pile < NUM_PILES
+     */
+    public void turnDownAll(int pile)
+    {
+        state[DOWN + pile] = (byte) size(pile);
+    }
+
+    /**
+     * Draws cards from the stock one at a time, turning each face up onto the top of
+     * the waste, so that the last card drawn ends up on top.
+     *
+     * @param   count   the greatest number of cards to be drawn
+     * @return          the number of cards drawn, which is fewer than count if the
+     *                  stock runs out
+     */
+    public int draw(int count)
+    {
+        int drawn = Math.min(count, state[END + STOCK]);
+        state[END + STOCK] -= drawn;
+        return drawn;
+    }
+
+    /**
+     * Puts cards from the top of the waste back onto the stock, face down, undoing
+     * draw.
+     *
+     * @precondition    the waste holds at least count cards
+     * @param   count   the number of cards to be put back
+     */
+    public void undraw(int count)
+    {
+        state[END + STOCK] += count;
+    }
+
+    /**
+     * Moves every card in the waste back onto the stock, face down, so that the
+     * card at the bottom of the waste becomes the top of the stock.
+     *
+     * @precondition    the stock is empty
+     */
+    public void recycleWaste()
+    {
+        state[END + STOCK] = state[END + WASTE];
+    }
+
+    /**
+     * Moves every card in the stock back onto the waste, face up, undoing
+     * recycleWaste.
+     *
+     * @precondition    the waste is empty
+     */
+    public void restoreWaste()
+    {
+        state[END + STOCK] = 0;
+    }
+
+    /**
+     * Lists the cards which can be brought to the top of the waste by drawing a
+     * number of cards at a time, and recycling the waste whenever the stock runs out,
+     * without playing any card in between: the top of the waste, then the last card
+     * of each draw through the rest of the stock, then the last card of each draw
+     * through the recycled waste. Every later pass repeats the one after the first
+     * recycle, so no other card ever comes up. Each card is listed once, in the
+     * order it first comes up.
+     *
+     * @param   drawSize    the number of cards drawn at a time, such as 3
+     * @param   cards       receives the PackedCards, face up; must have room for
+     *                      as many cards as the stock and waste hold together
+     * @return              the number of cards listed
+     */
+    public int reachableWaste(int drawSize, byte[] cards)
+    {
+        int n = 0;
+        long seen = 0;
+        int boundary = state[END + STOCK];
+        int end = state[END + WASTE];
+        if (boundary < end)
+        {
+            cards[n++] = PackedCard.turnUp(state[boundary]);
+            seen = PackedCard.bit(state[boundary]);
+        }
+
+        //the stock is drawn from the boundary down to slot 0, and after a recycle,
+        //from the end of the waste down to slot 0
+        for (int pass = 0; pass < 2; pass++)
+        {
+            int slot = pass == 0 ? boundary : end;
+            while (slot > 0)
+            {
+                slot = Math.max(slot - drawSize, 0);
+                long bit = PackedCard.bit(state[slot]);
+                if ((seen & bit) == 0)
+                {
+                    cards[n++] = PackedCard.turnUp(state[slot]);
+                    seen |= bit;
+                }
+            }
+        }
+        return n;
+    }
+}
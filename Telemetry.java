@@ -0,0 +1,420 @@
+import java.lang.management.*;
+import java.util.concurrent.atomic.*;
+import javax.management.*;
+
+/**
+ * Telemetry counts the input events of the game, times how long each input takes
+ * to reach the screen and how long each frame takes to be painted, and optionally
+ * logs the events, in place of printing each one to the console as it happens.
+ * Counting an event is one uncontended LongAdder increment and formats nothing.
+ *
+ * Telemetry is on unless the system property solitaire.telemetry is "false", in
+ * which case raising an event returns at once; the event log is off unless
+ * solitaire.log is "true". Both are read once, at startup, so the JIT can drop
+ * whatever is switched off. The counters, latencies, and frame times are
+ * published over JMX and may also be read directly through the getters.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class Telemetry implements TelemetryMBean
+{
+    public static final int STOCK_CLICK = 0;
+    public static final int WASTE_CLICK = 1;
+    public static final int FOUNDATION_CLICK = 2;
+    public static final int PILE_CLICK = 3;
+    public static final int UNDO = 4;
+    public static final int REDO = 5;
+
+    private static final int NUM_EVENTS = 6;
+    private static final long FRAME_BUDGET = 1000000000L / 60;   //nanoseconds per frame at 60 fps
+    private static final int LOG_CAPACITY = 1 << 12;
+    private static final boolean ENABLED = !"false".equals(System.getProperty("solitaire.telemetry"));
+    private static final boolean LOGGED = Boolean.getBoolean("solitaire.log");
+
+    private static Telemetry instance;
+
+    /**
+     * Returns the telemetry of this process, creating it and publishing it over JMX
+     * the first time.
+     *
+     * @return  the telemetry shared by every display
+     */
+    public static synchronized Telemetry get()
+    {
+        if (instance == null)
+        {
+            instance = new Telemetry();
+            if (ENABLED)
+            {
+                try
+                {
+                    ManagementFactory.getPlatformMBeanServer().registerMBean(
+                        instance, new ObjectName("solitaire:type=Telemetry"));
+                }
+                catch (JMException e)
+                {
+                    throw new IllegalStateException("cannot publish telemetry", e);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Describes an event in words, as it is written to the event log.
+     *
+     * @param   kind    the kind of event
+     * @param   arg     the foundation or pile the event concerns, if any
+     * @return          a description such as "pile #3 clicked"
+     */
+    public static String describe(int kind, int arg)
+    {
+        if (kind == STOCK_CLICK)
+        {
+            return "stock clicked";
+        }
+        if (kind == WASTE_CLICK)
+        {
+            return "waste clicked";
+        }
+        if (kind == FOUNDATION_CLICK)
+        {
+            return "foundation #" + arg + " clicked";
+        }
+        if (kind == PILE_CLICK)
+        {
+            return "pile #" + arg + " clicked";
+        }
+        if (kind == UNDO)
+        {
+            return "undo";
+        }
+        return "redo";
+    }
+
+    private LongAdder[] counters;
+    private LatencyHistogram latency;
+    private LatencyHistogram frames;
+    private LongAdder droppedFrames;
+    private EventLog log;
+    private long startupBegan;              //System.nanoTime when main began, or 0 if unknown
+    private volatile long startupNanos;     //from main to the first frame, or 0 until shown
+
+    /**
+     * Constructor for objects of Telemetry class.
+     */
+    private Telemetry()
+    {
+        counters = new LongAdder[NUM_EVENTS];
+        for (int i = 0; i < NUM_EVENTS; i++)
+        {
+            counters[i] = new LongAdder();
+        }
+        latency = new LatencyHistogram();
+        frames = new LatencyHistogram();
+        droppedFrames = new LongAdder();
+        if (ENABLED && LOGGED)
+        {
+            log = new EventLog(LOG_CAPACITY, System.out);
+        }
+    }
+
+    /**
+     * Counts an event, and logs it if there is an event log.
+     *
+     * @param   kind    the kind of event, such as PILE_CLICK
+     * @param   arg     the foundation or pile the event concerns, if any
+     */
+    public void event(int kind, int arg)
+    {
+        if (!ENABLED)
+        {
+            return;
+        }
+        counters[kind].increment();
+        if (log != null)
+        {
+            log.add(kind, arg);
+        }
+    }
+
+    /**
+     * Notes the time an input arrived, to be passed to inputShown once it is on
+     * the screen.
+     *
+     * @return  the time, in System.nanoTime units, or 0 if telemetry is off
+     */
+    public long startInput()
+    {
+        if (!ENABLED)
+        {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the latency of an input which has now reached the screen.
+     *
+     * @param   start   the time returned by startInput; if 0, nothing is recorded
+     */
+    public void inputShown(long start)
+    {
+        if (start != 0)
+        {
+            latency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records the time a frame took, from the first change to the picture it shows
+     * until it was painted, and counts as dropped each 60 fps refresh of the screen
+     * which passed without a new frame because this one was late.
+     *
+     * @param   start   the time the frame was first changed, or the paint began if
+     *                  the frame shows no change, in System.nanoTime units
+     */
+    public void frameShown(long start)
+    {
+        if (!ENABLED)
+        {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        frames.record(nanos);
+        if (nanos > FRAME_BUDGET)
+        {
+            droppedFrames.add(nanos / FRAME_BUDGET);
+        }
+    }
+
+    /**
+     * Notes the time the process began starting up, to be timed to the first frame.
+     *
+     * @param   start   the time main began, in System.nanoTime units
+     */
+    public synchronized void startupBegan(long start)
+    {
+        startupBegan = start;
+    }
+
+    /**
+     * Records the time from startupBegan to now, the first time a frame is shown;
+     * does nothing afterwards, or if startupBegan was never called.
+     */
+    public synchronized void firstFrameShown()
+    {
+        if (startupBegan != 0 && startupNanos == 0)
+        {
+            startupNanos = System.nanoTime() - startupBegan;
+        }
+    }
+
+    /**
+     * Returns the number of clicks on the stock.
+     *
+     * @return  the number of clicks
+     */
+    public long getStockClicks()
+    {
+        return counters[STOCK_CLICK].sum();
+    }
+
+    /**
+     * Returns the number of clicks on the waste.
+     *
+     * @return  the number of clicks
+     */
+    public long getWasteClicks()
+    {
+        return counters[WASTE_CLICK].sum();
+    }
+
+    /**
+     * Returns the number of clicks on the foundations.
+     *
+     * @return  the number of clicks
+     */
+    public long getFoundationClicks()
+    {
+        return counters[FOUNDATION_CLICK].sum();
+    }
+
+    /**
+     * Returns the number of clicks on the piles.
+     *
+     * @return  the number of clicks
+     */
+    public long getPileClicks()
+    {
+        return counters[PILE_CLICK].sum();
+    }
+
+    /**
+     * Returns the number of moves undone from the keyboard.
+     *
+     * @return  the number of undos
+     */
+    public long getUndos()
+    {
+        return counters[UNDO].sum();
+    }
+
+    /**
+     * Returns the number of moves redone from the keyboard.
+     *
+     * @return  the number of redos
+     */
+    public long getRedos()
+    {
+        return counters[REDO].sum();
+    }
+
+    /**
+     * Returns the number of inputs whose latency has been recorded.
+     *
+     * @return  the number of inputs timed
+     */
+    public long getLatencyCount()
+    {
+        return latency.getCount();
+    }
+
+    /**
+     * Returns the median time from an input to the frame showing it.
+     *
+     * @return  the median latency, in microseconds
+     */
+    public double getLatencyP50Micros()
+    {
+        return latency.getPercentile(50) / 1e3;
+    }
+
+    /**
+     * Returns the 99th percentile of the time from an input to the frame showing it.
+     *
+     * @return  the 99th percentile latency, in microseconds
+     */
+    public double getLatencyP99Micros()
+    {
+        return latency.getPercentile(99) / 1e3;
+    }
+
+    /**
+     * Returns the longest time from an input to the frame showing it.
+     *
+     * @return  the longest latency, in microseconds
+     */
+    public double getLatencyMaxMicros()
+    {
+        return latency.getMax() / 1e3;
+    }
+
+    /**
+     * Returns the number of frames whose time has been recorded.
+     *
+     * @return  the number of frames painted
+     */
+    public long getFrameCount()
+    {
+        return frames.getCount();
+    }
+
+    /**
+     * Returns the median time a frame took to be painted.
+     *
+     * @return  the median frame time, in microseconds
+     */
+    public double getFrameP50Micros()
+    {
+        return frames.getPercentile(50) / 1e3;
+    }
+
+    /**
+     * Returns the 99th percentile of the time a frame took to be painted.
+     *
+     * @return  the 99th percentile frame time, in microseconds
+     */
+    public double getFrameP99Micros()
+    {
+        return frames.getPercentile(99) / 1e3;
+    }
+
+    /**
+     * Returns the longest time a frame took to be painted.
+     *
+     * @return  the longest frame time, in microseconds
+     */
+    public double getFrameMaxMicros()
+    {
+        return frames.getMax() / 1e3;
+    }
+
+    /**
+     * Returns the number of 60 fps screen refreshes which passed without a new frame
+     * because a frame took longer than a refresh to be painted.
+     *
+     * @return  the number of frames dropped
+     */
+    public long getDroppedFrames()
+    {
+        return droppedFrames.sum();
+    }
+
+    /**
+     * Returns the time from the start of main to the first frame on the screen.
+     *
+     * @return  the startup time, in milliseconds, or 0 if no frame has been shown
+     */
+    public double getStartupMillis()
+    {
+        return startupNanos / 1e6;
+    }
+
+    /**
+     * Returns the number of events the event log dropped because it fell behind.
+     *
+     * @return  the number of events dropped, or 0 if there is no event log
+     */
+    public long getDroppedEvents()
+    {
+        if (log == null)
+        {
+            return 0;
+        }
+        return log.getDropped();
+    }
+
+    /**
+     * Sets every counter and the latency and frame time histograms back to zero.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < NUM_EVENTS; i++)
+        {
+            counters[i].reset();
+        }
+        latency.reset();
+        frames.reset();
+        droppedFrames.reset();
+    }
+
+    /**
+     * Summarizes the counters, latencies, and frame times.
+     *
+     * @return  a one line summary
+     */
+    public String toString()
+    {
+        return String.format("clicks: stock %d, waste %d, foundation %d, pile %d; undo %d, redo %d; "
+                             + "latency p50 %.0f us, p99 %.0f us, max %.0f us over %d inputs; "
+                             + "frame p50 %.0f us, p99 %.0f us, max %.0f us over %d frames, "
+                             + "%d dropped; startup %.0f ms",
+                             getStockClicks(), getWasteClicks(), getFoundationClicks(),
+                             getPileClicks(), getUndos(), getRedos(), getLatencyP50Micros(),
+                             getLatencyP99Micros(), getLatencyMaxMicros(), getLatencyCount(),
+                             getFrameP50Micros(), getFrameP99Micros(), getFrameMaxMicros(),
+                             getFrameCount(), getDroppedFrames(), getStartupMillis());
+    }
+}
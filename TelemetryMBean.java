@@ -0,0 +1,134 @@
+/**
+ * TelemetryMBean is the management interface through which Telemetry is published
+ * over JMX, under the name "solitaire:type=Telemetry".
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public interface TelemetryMBean
+{
+    /**
+     * Returns the number of clicks on the stock.
+     *
+     * @return  the number of clicks
+     */
+    long getStockClicks();
+
+    /**
+     * Returns the number of clicks on the waste.
+     *
+     * @return  the number of clicks
+     */
+    long getWasteClicks();
+
+    /**
+     * Returns the number of clicks on the foundations.
+     *
+     * @return  the number of clicks
+     */
+    long getFoundationClicks();
+
+    /**
+     * Returns the number of clicks on the piles.
+     *
+     * @return  the number of clicks
+     */
+    long getPileClicks();
+
+    /**
+     * Returns the number of moves undone from the keyboard.
+     *
+     * @return  the number of undos
+     */
+    long getUndos();
+
+    /**
+     * Returns the number of moves redone from the keyboard.
+     *
+     * @return  the number of redos
+     */
+    long getRedos();
+
+    /**
+     * Returns the number of inputs whose latency has been recorded.
+     *
+     * @return  the number of inputs timed
+     */
+    long getLatencyCount();
+
+    /**
+     * Returns the median time from an input to the frame showing it.
+     *
+     * @return  the median latency, in microseconds
+     */
+    double getLatencyP50Micros();
+
+    /**
+     * Returns the 99th percentile of the time from an input to the frame showing it.
+     *
+     * @return  the 99th percentile latency, in microseconds
+     */
+    double getLatencyP99Micros();
+
+    /**
+     * Returns the longest time from an input to the frame showing it.
+     *
+     * @return  the longest latency, in microseconds
+     */
+    double getLatencyMaxMicros();
+
+    /**
+     * Returns the number of frames whose time has been recorded.
+     *
+     * @return  the number of frames painted
+     */
+    long getFrameCount();
+
+    /**
+     * Returns the median time a frame took to be painted.
+     *
+     * @return  the median frame time, in microseconds
+     */
+    double getFrameP50Micros();
+
+    /**
+     * Returns the 99th percentile of the time a frame took to be painted.
+     *
+     * @return  the 99th percentile frame time, in microseconds
+     */
+    double getFrameP99Micros();
+
+    /**
+     * Returns the longest time a frame took to be painted.
+     *
+     * @return  the longest frame time, in microseconds
+     */
+    double getFrameMaxMicros();
+
+    /**
+     * Returns the number of 60 fps screen refreshes which passed without a new frame
+     * because a frame took longer than a refresh to be painted.
+     *
+     * @return  the number of frames dropped
+     */
+    long getDroppedFrames();
+
+    /**
+     * Returns the time from the start of main to the first frame on the screen.
+     *
+     * @return  the startup time, in milliseconds, or 0 if no frame has been shown
+     */
+    double getStartupMillis();
+
+    /**
+     * Returns the number of events the event log dropped because it fell behind.
+     *
+     * @return  the number of events dropped, or 0 if there is no event log
+     */
+    long getDroppedEvents();
+
+    /**
+     * Sets every counter and the latency and frame time histograms back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,86 @@
+import java.util.*;
+
+/**
+ * A TranspositionTable remembers the hashes of positions a search has already
+ * visited, in a fixed amount of memory. The table is an array of 64-bit hashes
+ * divided into buckets of 4 slots; a hash may only be stored in the bucket chosen
+ * by its low bits. When that bucket is full, one of its hashes, chosen by the high
+ * bits of the new hash, is evicted to make room, so a search may occasionally
+ * visit a position twice but never runs out of memory.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class TranspositionTable
+{
+    private static final int BUCKET_SIZE = 4;
+
+    private long[] slots;
+    private int mask;
+    private long evictions;
+
+    /**
+     * Constructor for objects of TranspositionTable class.
+     *
+     * @param   bits    the base 2 logarithm of the number of slots; the table takes
+     *                  8 * 2^bits bytes; 2 <= bits <= 30
+     */
+    public TranspositionTable(int bits)
+    {
+        slots = new long[1 << bits];
+        mask = (1 << bits) - 1;
+    }
+
+    /**
+     * Adds a hash to the table, unless it is already there.
+     *
+     * @param   hash    the hash of a position
+     * @return          true if the hash was added; otherwise (the position has
+     *                  already been visited),
+     *                  false
+     */
+    public boolean add(long hash)
+    {
+        if (hash == 0)
+        {
+            hash = 1;   //0 marks an empty slot
+        }
+
+        int bucket = (int) hash & mask & -BUCKET_SIZE;
+        for (int i = bucket; i < bucket + BUCKET_SIZE; i++)
+        {
+            if (slots[i] == hash)
+            {
+                return false;
+            }
+            if (slots[i] == 0)
+            {
+                slots[i] = hash;
+                return true;
+            }
+        }
+
+        slots[bucket + (int) (hash >>> 62)] = hash;
+        evictions++;
+        return true;
+    }
+
+    /**
+     * Removes every hash from the table.
+     */
+    public void clear()
+    {
+        Arrays.fill(slots, 0);
+        evictions = 0;
+    }
+
+    /**
+     * Returns the number of hashes evicted since the table was last cleared.
+     *
+     * @return  the number of evictions
+     */
+    public long getEvictions()
+    {
+        return evictions;
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Zobrist computes 64-bit hashes of Tableau layouts for transposition tables. Every
+ * combination of pile, position within the pile, and card has a fixed random key,
+ * as does every face down count of every pile; the hash of a layout is the
+ * exclusive or of the keys of everything in it.
+ *
+ * Many layouts are the same for the purposes of search: the 7 piles may be put in
+ * any order, any foundation may hold any suit, and the two black suits, or the two
+ * red suits, may trade places everywhere at once, without changing which moves can
+ * be made or whether the game can be won. canonicalHash gives all such layouts the
+ * same hash, so a transposition table keeps one entry for all of them. Each pile
+ * is hashed on its own and the pile hashes are mixed and added, which does not
+ * depend on their order; each foundation is hashed by its top card alone,
+ * whichever slot it is in; and the hash is taken under each of the 4 ways of
+ * swapping suits of a color, keeping the least.
+ *
+ * The keys are generated from a fixed seed, so hashes are the same from run to run.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public final class Zobrist
+{
+    private static final long[] CARD_KEYS = new long[Tableau.NUM_PILES * 52 * 52];
+    private static final long[] DOWN_KEYS = new long[Tableau.NUM_PILES * 53];
+    private static final int[] RELABELS = new int[4 * 52];   //card index under each suit swap
+
+    static
+    {
+        for (int swap = 0; swap < 4; swap++)
+        {
+            for (int i = 0; i < 52; i++)
+            {
+                int suit = i / 13;
+                if (suit == 0 || suit == 3)
+                {
+                    suit = (swap & 1) == 0 ? suit : 3 - suit;   //clubs and spades
+                }
+                else
+                {
+                    suit = (swap & 2) == 0 ? suit : 3 - suit;   //diamonds and hearts
+                }
+                RELABELS[swap * 52 + i] = suit * 13 + i % 13;
+            }
+        }
+    }
+
+    static
+    {
+        long state = 0x5EED5EED5EED5EEDL;
+        for (int i = 0; i < CARD_KEYS.length; i++)
+        {
+            state += 0x9E3779B97F4A7C15L;
+            CARD_KEYS[i] = mix(state);
+        }
+        for (int i = 0; i < DOWN_KEYS.length; i++)
+        {
+            state += 0x9E3779B97F4A7C15L;
+            DOWN_KEYS[i] = mix(state);
+        }
+    }
+
+    private Zobrist()
+    {
+    }
+
+    /**
+     * Computes the hash of a layout.
+     *
+     * @param   tableau     the layout to be hashed
+     * @return              the 64-bit Zobrist hash
+     */
+    public static long hash(Tableau tableau)
+    {
+        long hash = 0;
+        for (int p = 0; p < Tableau.NUM_PILES; p++)
+        {
+            int size = tableau.size(p);
+            int base = p * 52;
+            for (int j = 0; j < size; j++)
+            {
+                hash ^= CARD_KEYS[(base + j) * 52 + PackedCard.index(tableau.card(p, j))];
+            }
+            hash ^= DOWN_KEYS[p * 53 + tableau.faceDownCount(p)];
+        }
+        return hash;
+    }
+
+    /**
+     * Computes a hash of a layout which is the same for every layout equivalent to it
+     * under reordering the piles, reassigning the foundations, and swapping suits of
+     * the same color. It should not be used where the hash must tell apart layouts
+     * whose moves name different piles, such as a cache of hints.
+     *
+     * @param   tableau     the layout to be hashed
+     * @return              the 64-bit canonical hash
+     */
+    public static long canonicalHash(Tableau tableau)
+    {
+        //the hash under each of the 4 suit swaps is built at once, reading each card once
+        long h0 = 0;
+        long h1 = 0;
+        long h2 = 0;
+        long h3 = 0;
+        for (int p = Tableau.STOCK; p <= Tableau.WASTE; p++)
+        {
+            int size = tableau.size(p);
+            int base = p * 52;
+            for (int j = 0; j < size; j++)
+            {
+                int key = (base + j) * 52;
+                int i = PackedCard.index(tableau.card(p, j));
+                h0 ^= CARD_KEYS[key + i];
+                h1 ^= CARD_KEYS[key + RELABELS[52 + i]];
+                h2 ^= CARD_KEYS[key + RELABELS[104 + i]];
+                h3 ^= CARD_KEYS[key + RELABELS[156 + i]];
+            }
+        }
+
+        int foundationKey = Tableau.FOUNDATION * 52 * 52;
+        for (int f = Tableau.FOUNDATION; f < Tableau.PILE; f++)
+        {
+            if (!tableau.isEmpty(f))
+            {
+                int i = PackedCard.index(tableau.top(f));
+                h0 ^= CARD_KEYS[foundationKey + i];
+                h1 ^= CARD_KEYS[foundationKey + RELABELS[52 + i]];
+                h2 ^= CARD_KEYS[foundationKey + RELABELS[104 + i]];
+                h3 ^= CARD_KEYS[foundationKey + RELABELS[156 + i]];
+            }
+        }
+
+        int pileBase = Tableau.PILE * 52;
+        for (int p = Tableau.PILE; p < Tableau.PILE + 7; p++)
+        {
+            int size = tableau.size(p);
+            long down = DOWN_KEYS[Tableau.PILE * 53 + tableau.faceDownCount(p)];
+            long p0 = down;
+            long p1 = down;
+            long p2 = down;
+            long p3 = down;
+            for (int j = 0; j < size; j++)
+            {
+                int key = (pileBase + j) * 52;
+                int i = PackedCard.index(tableau.card(p, j));
+                p0 ^= CARD_KEYS[key + i];
+                p1 ^= CARD_KEYS[key + RELABELS[52 + i]];
+                p2 ^= CARD_KEYS[key + RELABELS[104 + i]];
+                p3 ^= CARD_KEYS[key + RELABELS[156 + i]];
+            }
+            h0 += mix(p0);
+            h1 += mix(p1);
+            h2 += mix(p2);
+            h3 += mix(p3);
+        }
+        return Math.min(Math.min(h0, h1), Math.min(h2, h3));
+    }
+
+    /**
+     * The SplitMix64 output function, which scrambles the bits of the generator state.
+     *
+     * @param   z   the generator state
+     * @return      a well-mixed 64-bit value
+     */
+    private static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,138 @@
+package solitaire.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * GameBenchmarks runs the benchmarks of the game's hot paths under JMH, which warms
+ * each one up and measures it in a JVM of its own. Run with "-prof gc" to see the
+ * allocation rate of each as well as its throughput.
+ *
+ * The game's classes are in the default package, which code in a package cannot
+ * name, so the operations are those of the game's own Benchmark class, looked up
+ * by name once per fork and kept in fields, to be called through IntSupplier. Each
+ * benchmark's call site only ever sees one operation, so it is inlined as if it
+ * had been written here. Every operation returns an int, which JMH consumes, so
+ * the JIT cannot discard the work as dead code.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GameBenchmarks
+{
+    private IntSupplier deal;
+    private IntSupplier rules;
+    private IntSupplier legalMoves;
+    private IntSupplier makeMove;
+    private IntSupplier fileName;
+    private IntSupplier playout;
+    private IntSupplier paint;
+
+    /**
+     * Sets up the positions the benchmarks work on, through the game's Benchmark.
+     *
+     * @throws  ReflectiveOperationException if the game's Benchmark is not on the
+     *          classpath
+     */
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws ReflectiveOperationException
+    {
+        Object benchmark = Class.forName("Benchmark").getConstructor().newInstance();
+        Map<String, IntSupplier> operations = (Map<String, IntSupplier>)
+            benchmark.getClass().getMethod("benchmarks").invoke(benchmark);
+        deal = operations.get("deal");
+        rules = operations.get("rules");
+        legalMoves = operations.get("legalMoves");
+        makeMove = operations.get("makeMove");
+        fileName = operations.get("fileName");
+        playout = operations.get("playout");
+        paint = operations.get("paint");
+    }
+
+    /**
+     * Shuffles, creates the stock, and deals (Solitaire's constructor).
+     *
+     * @return  the size of the last pile dealt
+     */
+    @Benchmark
+    public int deal()
+    {
+        return deal.getAsInt();
+    }
+
+    /**
+     * Checks the rules behind canAddToPile and canAddToFoundation for every pair
+     * of cards.
+     *
+     * @return  the number of pairs which may be stacked or followed
+     */
+    @Benchmark
+    public int rules()
+    {
+        return rules.getAsInt();
+    }
+
+    /**
+     * Lists every legal move of a position.
+     *
+     * @return  the number of legal moves
+     */
+    @Benchmark
+    public int legalMoves()
+    {
+        return legalMoves.getAsInt();
+    }
+
+    /**
+     * Makes a legal move and undoes it.
+     *
+     * @return  the number of moves made in the position
+     */
+    @Benchmark
+    public int makeMove()
+    {
+        return makeMove.getAsInt();
+    }
+
+    /**
+     * Names the image file of a card.
+     *
+     * @return  the length of the file name
+     */
+    @Benchmark
+    public int fileName()
+    {
+        return fileName.getAsInt();
+    }
+
+    /**
+     * Plays a whole game of random moves, from the deal to its end.
+     *
+     * @return  the number of moves made
+     */
+    @Benchmark
+    public int playout()
+    {
+        return playout.getAsInt();
+    }
+
+    /**
+     * Redraws a whole frame of a game off the screen, then paints it.
+     *
+     * @return  a pixel of the painted frame
+     */
+    @Benchmark
+    public int paint()
+    {
+        return paint.getAsInt();
+    }
+}
@@ -0,0 +1,111 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Tests of MoveJournal, on its own and as the undo and redo of a Solitaire game.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class MoveJournalTest
+{
+    /**
+     * Undoing steps back through the moves, redoing steps forward again, and a new
+     * move discards the moves which could have been redone.
+     */
+    @Test
+    public void undoesAndRedoesInOrder()
+    {
+        MoveJournal journal = new MoveJournal();
+        assertFalse(journal.canUndo());
+        for (int move = 1; move <= 100; move++)
+        {
+            journal.record(move);
+        }
+        assertEquals(100, journal.size());
+        assertEquals(100, journal.undo());
+        assertEquals(99, journal.undo());
+        assertTrue(journal.canRedo());
+        assertEquals(99, journal.redo());
+        assertEquals(99, journal.size());
+
+        journal.record(7);
+        assertFalse(journal.canRedo());
+        assertEquals(100, journal.size());
+        assertEquals(7, journal.get(99));
+        assertEquals(7, journal.undo());
+        assertEquals(99, journal.undo());
+    }
+
+    /**
+     * A copy holds the same moves, and can redo the same moves, as the original.
+     */
+    @Test
+    public void copiesMovesAndRedos()
+    {
+        MoveJournal journal = new MoveJournal();
+        for (int move = 1; move <= 70; move++)
+        {
+            journal.record(move);
+        }
+        journal.undo();
+        journal.undo();
+
+        MoveJournal copy = new MoveJournal();
+        copy.copyFrom(journal);
+        assertEquals(68, copy.size());
+        assertEquals(68, copy.get(67));
+        assertEquals(69, copy.redo());
+        assertEquals(70, copy.redo());
+        assertFalse(copy.canRedo());
+
+        copy.clear();
+        assertEquals(0, copy.size());
+        assertFalse(copy.canUndo());
+        assertFalse(copy.canRedo());
+    }
+
+    /**
+     * Undoing every move of a game brings back every position it passed through, in
+     * reverse, and redoing every move brings them back again in order.
+     */
+    @Test
+    public void undoAndRedoRestoreEveryPosition()
+    {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (long seed = 1; seed <= 50; seed++)
+        {
+            Solitaire game = new Solitaire(seed);
+            Random random = new Random(seed);
+            List<Long> hashes = new ArrayList<Long>();
+            hashes.add(Zobrist.hash(game.getTableau()));
+            for (int i = 0; i < 200 && !game.hasWon(); i++)
+            {
+                int count = game.getLegalMoves(moves);
+                if (count == 0)
+                {
+                    break;
+                }
+                assertTrue(game.makeMove(moves[random.nextInt(count)]));
+                hashes.add(Zobrist.hash(game.getTableau()));
+            }
+
+            for (int i = hashes.size() - 1; i > 0; i--)
+            {
+                assertTrue(game.undo());
+                assertEquals(hashes.get(i - 1), Zobrist.hash(game.getTableau()), "seed " + seed);
+            }
+            assertFalse(game.undo());
+            assertEquals(hashes.get(0), Zobrist.hash(new Solitaire(seed).getTableau()));
+
+            for (int i = 1; i < hashes.size(); i++)
+            {
+                assertTrue(game.redo());
+                assertEquals(hashes.get(i), Zobrist.hash(game.getTableau()), "seed " + seed);
+            }
+            assertFalse(game.redo());
+        }
+    }
+}
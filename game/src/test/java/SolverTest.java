@@ -0,0 +1,90 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+
+/**
+ * Tests of Solver and ParallelSolver: every solution either one finds must win the
+ * game when its moves are made in order.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class SolverTest
+{
+    /**
+     * Solver's solutions replay to a win.
+     */
+    @Test
+    public void solutionsReplayToAWin()
+    {
+        Solver solver = new Solver(20, 200000, 10000);
+        int won = 0;
+        for (long seed = 1; seed <= 20; seed++)
+        {
+            if (solver.solve(new Solitaire(seed)) == Solver.WON)
+            {
+                checkWins(seed, solver.getSolution());
+                won++;
+            }
+        }
+        assertTrue(won > 0, "no deal was won");
+    }
+
+    /**
+     * ParallelSolver's solutions replay to a win.
+     */
+    @Test
+    public void parallelSolutionsReplayToAWin()
+    {
+        ParallelSolver solver = new ParallelSolver(20, 200000, 10000, 4);
+        try
+        {
+            int won = 0;
+            for (long seed = 1; seed <= 20; seed++)
+            {
+                if (solver.solve(new Solitaire(seed)) == Solver.WON)
+                {
+                    checkWins(seed, solver.getSolution());
+                    won++;
+                }
+            }
+            assertTrue(won > 0, "no deal was won");
+        }
+        finally
+        {
+            solver.shutdown();
+        }
+    }
+
+    /**
+     * Solving a game leaves it as it was.
+     */
+    @Test
+    public void solvingDoesNotChangeTheGame()
+    {
+        Solitaire game = new Solitaire(3);
+        assertTrue(game.makeMove(Move.encode(Tableau.STOCK, Tableau.WASTE, Solitaire.DRAW_SIZE)));
+        long hash = Zobrist.hash(game.getTableau());
+        new Solver(16, 20000, 10000).solve(game);
+        assertEquals(hash, Zobrist.hash(game.getTableau()));
+        assertEquals(1, game.getMoveCount());
+    }
+
+    /**
+     * Makes every move of a solution in a new game of a deal, and checks that each
+     * is legal and that the game is won at the end.
+     *
+     * @param   seed        the seed of the deal
+     * @param   solution    the moves, each encoded by Move
+     */
+    private static void checkWins(long seed, int[] solution)
+    {
+        Solitaire game = new Solitaire(seed);
+        for (int i = 0; i < solution.length; i++)
+        {
+            assertTrue(game.makeMove(solution[i]), "seed " + seed + ", move " + i + ":  "
+                                                   + Move.toString(solution[i]));
+        }
+        assertTrue(game.hasWon(), "seed " + seed);
+    }
+}
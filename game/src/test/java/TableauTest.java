@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Tests of Tableau.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class TableauTest
+{
+    /**
+     * reachableWaste lists exactly the cards which drawing and recycling bring to
+     * the top of the waste, in the order they first come up, at every point of
+     * games played with random legal moves.
+     */
+    @Test
+    public void reachableWasteMatchesDrawing()
+    {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        byte[] reachable = new byte[52];
+        for (long seed = 1; seed <= 30; seed++)
+        {
+            Solitaire game = new Solitaire(seed);
+            Random random = new Random(seed);
+            for (int i = 0; i < 200 && !game.hasWon(); i++)
+            {
+                int count = game.getTableau().reachableWaste(Solitaire.DRAW_SIZE, reachable);
+                List<Byte> listed = new ArrayList<Byte>();
+                for (int j = 0; j < count; j++)
+                {
+                    listed.add(reachable[j]);
+                }
+                assertEquals(drawnTops(game.getTableau()), listed, "seed " + seed + " after " + i + " moves");
+
+                int legal = game.getLegalMoves(moves);
+                if (legal == 0)
+                {
+                    break;
+                }
+                assertTrue(game.makeMove(moves[random.nextInt(legal)]));
+            }
+        }
+    }
+
+    /**
+     * Draws and recycles a copy of a tableau through three passes of the stock,
+     * listing each card which comes to the top of the waste.
+     *
+     * @param   tableau     the layout, which is not changed
+     * @return              the PackedCards, face up, in the order they first come up
+     */
+    private static List<Byte> drawnTops(Tableau tableau)
+    {
+        Tableau t = new Tableau(tableau);
+        List<Byte> tops = new ArrayList<Byte>();
+        int steps = 3 * (t.size(Tableau.STOCK) + t.size(Tableau.WASTE) + 1);
+        for (int step = 0; step < steps; step++)
+        {
+            if (!t.isEmpty(Tableau.WASTE))
+            {
+                byte top = PackedCard.turnUp(t.top(Tableau.WASTE));
+                if (!tops.contains(top))
+                {
+                    tops.add(top);
+                }
+            }
+            if (t.isEmpty(Tableau.STOCK))
+            {
+                t.recycleWaste();
+            }
+            else
+            {
+                t.draw(Solitaire.DRAW_SIZE);
+            }
+        }
+        return tops;
+    }
+}
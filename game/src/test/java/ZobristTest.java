@@ -0,0 +1,240 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Tests of Zobrist, chiefly that canonicalHash gives the same hash to layouts which
+ * differ only in the order of their piles, the slots of their foundations, or a
+ * swap of suits of the same color. Each game is played with random legal moves,
+ * and every move is mirrored onto a second tableau dealt from the same deck with
+ * its piles, foundations, and suits relabeled.
+ *
+ * @author  Annabelle Perng
+ * @version 10.18.2026
+ */
+public class ZobristTest
+{
+    private static final int[] IDENTITY = {0, 1, 2, 3, 4, 5, 6};
+
+    /**
+     * A layout dealt with its piles in another order has the same canonical hash.
+     */
+    @Test
+    public void canonicalHashIgnoresPileOrder()
+    {
+        Random random = new Random(1);
+        for (long seed = 1; seed <= 30; seed++)
+        {
+            checkMirrored(seed, shuffled(7, random), IDENTITY, 0);
+        }
+    }
+
+    /**
+     * A layout whose foundations are in other slots has the same canonical hash.
+     */
+    @Test
+    public void canonicalHashIgnoresFoundationSlots()
+    {
+        Random random = new Random(2);
+        for (long seed = 1; seed <= 30; seed++)
+        {
+            checkMirrored(seed, IDENTITY, shuffled(4, random), 0);
+        }
+    }
+
+    /**
+     * A layout with its black suits, its red suits, or both swapped has the same
+     * canonical hash.
+     */
+    @Test
+    public void canonicalHashIgnoresSuitSwaps()
+    {
+        for (long seed = 1; seed <= 30; seed++)
+        {
+            for (int swap = 1; swap < 4; swap++)
+            {
+                checkMirrored(seed, IDENTITY, IDENTITY, swap);
+            }
+        }
+    }
+
+    /**
+     * All of the relabelings at once still give the same canonical hash.
+     */
+    @Test
+    public void canonicalHashIgnoresAllRelabelings()
+    {
+        Random random = new Random(3);
+        for (long seed = 1; seed <= 30; seed++)
+        {
+            checkMirrored(seed, shuffled(7, random), shuffled(4, random), random.nextInt(4));
+        }
+    }
+
+    /**
+     * The plain hash tells the piles apart, and both hashes change with a move.
+     */
+    @Test
+    public void hashesTellPositionsApart()
+    {
+        Solitaire game = new Solitaire(1);
+        Tableau reordered = deal(1, new int[] {6, 5, 4, 3, 2, 1, 0}, 0);
+        assertNotEquals(Zobrist.hash(game.getTableau()), Zobrist.hash(reordered));
+
+        long hash = Zobrist.hash(game.getTableau());
+        long canonical = Zobrist.canonicalHash(game.getTableau());
+        assertTrue(game.makeMove(Move.encode(Tableau.STOCK, Tableau.WASTE, Solitaire.DRAW_SIZE)));
+        assertNotEquals(hash, Zobrist.hash(game.getTableau()));
+        assertNotEquals(canonical, Zobrist.canonicalHash(game.getTableau()));
+    }
+
+    /**
+     * Plays a game with random legal moves, mirroring each onto a relabeled tableau,
+     * and checks that the two always have the same canonical hash.
+     *
+     * @param   seed            the seed of the deal
+     * @param   pileOrder       the pile of the mirror holding each pile of the game
+     * @param   foundationOrder the foundation of the mirror holding each foundation
+     *                          of the game
+     * @param   swap            1 to swap the black suits, 2 to swap the red suits,
+     *                          3 to swap both, or 0 for neither
+     */
+    private static void checkMirrored(long seed, int[] pileOrder, int[] foundationOrder, int swap)
+    {
+        Solitaire game = new Solitaire(seed);
+        Tableau mirror = deal(seed, pileOrder, swap);
+        Random random = new Random(seed);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int i = 0; i < 300 && !game.hasWon(); i++)
+        {
+            assertEquals(Zobrist.canonicalHash(game.getTableau()), Zobrist.canonicalHash(mirror),
+                         "seed " + seed + " after " + i + " moves");
+            int count = game.getLegalMoves(moves);
+            if (count == 0)
+            {
+                break;
+            }
+            assertTrue(game.makeMove(moves[random.nextInt(count)]));
+            int move = game.getMove(game.getMoveCount() - 1);
+            int from = relabel(Move.from(move), pileOrder, foundationOrder);
+            int to = relabel(Move.to(move), pileOrder, foundationOrder);
+            if (from == Tableau.STOCK)
+            {
+                mirror.draw(Move.count(move));
+            }
+            else if (to == Tableau.STOCK)
+            {
+                mirror.recycleWaste();
+            }
+            else
+            {
+                mirror.move(from, to, Move.count(move));
+                if (Move.isFlip(move))
+                {
+                    mirror.turnUpTop(from);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deals a deal onto a new tableau, as Solitaire does, but relabeled.
+     *
+     * @param   seed        the seed of the deal
+     * @param   pileOrder   the pile to deal each of the game's piles onto
+     * @param   swap        the suits to swap, as for checkMirrored
+     * @return              the tableau
+     */
+    private static Tableau deal(long seed, int[] pileOrder, int swap)
+    {
+        byte[] deck = new byte[DealGenerator.DEAL_SIZE];
+        DealGenerator.deal(seed, deck, 0);
+        for (int i = 0; i < deck.length; i++)
+        {
+            int suit = PackedCard.suit(deck[i]);
+            if (((swap & 1) != 0 && !PackedCard.isRed(deck[i]))
+                || ((swap & 2) != 0 && PackedCard.isRed(deck[i])))
+            {
+                suit = swapped(suit);
+            }
+            deck[i] = PackedCard.encode(PackedCard.rank(deck[i]), suit, PackedCard.isFaceUp(deck[i]));
+        }
+
+        Tableau t = new Tableau(deck);
+        for (int i = 0; i < 7; i++)
+        {
+            int pile = Tableau.PILE + pileOrder[i];
+            for (int j = 0; j <= i; j++)
+            {
+                t.move(Tableau.STOCK, pile, 1);
+            }
+            t.turnDownAll(pile);
+            t.turnUpTop(pile);
+        }
+        return t;
+    }
+
+    /**
+     * Returns the other suit of the same color.
+     *
+     * @param   suit    the suit, as numbered by PackedCard
+     * @return          the suit of the same color which is not suit
+     */
+    private static int swapped(int suit)
+    {
+        for (int other = 0; other < 4; other++)
+        {
+            byte card = PackedCard.encode(1, other, true);
+            if (other != suit && PackedCard.isRed(card) == PackedCard.isRed(PackedCard.encode(1, suit, true)))
+            {
+                return other;
+            }
+        }
+        throw new IllegalArgumentException("no suit matches:  " + suit);
+    }
+
+    /**
+     * Finds the pile of the mirror corresponding to a pile of the game.
+     *
+     * @param   pile            the pile of the game
+     * @param   pileOrder       as for checkMirrored
+     * @param   foundationOrder as for checkMirrored
+     * @return                  the pile of the mirror
+     */
+    private static int relabel(int pile, int[] pileOrder, int[] foundationOrder)
+    {
+        if (pile >= Tableau.PILE)
+        {
+            return Tableau.PILE + pileOrder[pile - Tableau.PILE];
+        }
+        if (pile >= Tableau.FOUNDATION)
+        {
+            return Tableau.FOUNDATION + foundationOrder[pile - Tableau.FOUNDATION];
+        }
+        return pile;
+    }
+
+    /**
+     * Returns a random permutation.
+     *
+     * @param   n       the number of things permuted
+     * @param   random  the source of randomness
+     * @return          0 through n - 1, in random order
+     */
+    private static int[] shuffled(int n, Random random)
+    {
+        List<Integer> order = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++)
+        {
+            order.add(i);
+        }
+        Collections.shuffle(order, random);
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++)
+        {
+            result[i] = order.get(i);
+        }
+        return result;
+    }
+}